@@ -0,0 +1,154 @@
+package com.roxiemobile.androidcommons.cache;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe cache that holds a limited number of entries and evicts the least recently used one
+ * when a new entry does not fit. Hits, misses and evictions are counted.
+ * <p>
+ * Unlike {@code android.util.LruCache} it does not depend on the Android framework, so it can be used
+ * by the code shared with plain JVM tests. Override {@link #create(Object)} to compute missing values.
+ */
+public class LruCache<K, V>
+{
+// MARK: - Construction
+
+    public LruCache(int maxSize) {
+        Guard.isTrue(maxSize > 0, "maxSize <= 0");
+
+        mMaxSize = maxSize;
+        mMap = new LinkedHashMap<>(0, 0.75f, true);
+    }
+
+// MARK: - Properties
+
+    public final synchronized int size() {
+        return mMap.size();
+    }
+
+    public final int maxSize() {
+        return mMaxSize;
+    }
+
+    public final synchronized long hitCount() {
+        return mHitCount;
+    }
+
+    public final synchronized long missCount() {
+        return mMissCount;
+    }
+
+    public final synchronized long evictionCount() {
+        return mEvictionCount;
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns the value for the key if it is cached or can be created by {@link #create(Object)}.
+     * A created value is cached and becomes the most recently used one.
+     */
+    public final @Nullable V get(@NonNull K key) {
+        Guard.notNull(key, "key is null");
+
+        synchronized (this) {
+            V value = mMap.get(key);
+            if (value != null) {
+                mHitCount++;
+                return value;
+            }
+            mMissCount++;
+        }
+
+        // Values are created without holding the lock, so the same value may be created twice
+        V createdValue = create(key);
+        if (createdValue == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            V value = mMap.get(key);
+            if (value != null) {
+                return value;
+            }
+
+            mMap.put(key, createdValue);
+            trimToSize(mMaxSize);
+        }
+
+        // Done
+        return createdValue;
+    }
+
+    /**
+     * Caches the value for the key and returns the previous value, if any.
+     */
+    public final @Nullable V put(@NonNull K key, @NonNull V value) {
+        Guard.notNull(key, "key is null");
+        Guard.notNull(value, "value is null");
+
+        synchronized (this) {
+            V previous = mMap.put(key, value);
+            trimToSize(mMaxSize);
+            return previous;
+        }
+    }
+
+    public final synchronized @Nullable V remove(@NonNull K key) {
+        Guard.notNull(key, "key is null");
+        return mMap.remove(key);
+    }
+
+    /**
+     * Removes all entries. The counters are not reset.
+     */
+    public final synchronized void evictAll() {
+        trimToSize(0);
+    }
+
+    @Override
+    public final synchronized String toString() {
+        long accesses = mHitCount + mMissCount;
+        long hitPercent = (accesses != 0) ? (100 * mHitCount / accesses) : 0;
+
+        return String.format("LruCache[maxSize=%d,hits=%d,misses=%d,evictions=%d,hitRate=%d%%]",
+                mMaxSize, mHitCount, mMissCount, mEvictionCount, hitPercent);
+    }
+
+// MARK: - Protected Methods
+
+    /**
+     * Called after a cache miss to compute the value for the key. Returns {@code null} by default.
+     */
+    protected @Nullable V create(@NonNull K key) {
+        return null;
+    }
+
+// MARK: - Private Methods
+
+    private void trimToSize(int maxSize) {
+        while (mMap.size() > maxSize) {
+            Map.Entry<K, V> eldest = mMap.entrySet().iterator().next();
+            mMap.remove(eldest.getKey());
+            mEvictionCount++;
+        }
+    }
+
+// MARK: - Variables
+
+    private final LinkedHashMap<K, V> mMap;
+
+    private final int mMaxSize;
+
+    private long mHitCount;
+
+    private long mMissCount;
+
+    private long mEvictionCount;
+}
@@ -0,0 +1,23 @@
+package com.roxiemobile.androidcommons.concurrent;
+
+/**
+ * Defines what a {@link LaneExecutor} does with a task that does not fit into its queue.
+ */
+public enum BackPressurePolicy
+{
+    /**
+     * The task is rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    ABORT,
+
+    /**
+     * The task runs on the thread that submits it, which slows the producer down.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Either the queued task or the new one is discarded, whichever would run last. A discarded
+     * {@link java.util.concurrent.Future} is cancelled, so nobody waits for it forever.
+     */
+    DISCARD_LOWEST_PRIORITY
+}
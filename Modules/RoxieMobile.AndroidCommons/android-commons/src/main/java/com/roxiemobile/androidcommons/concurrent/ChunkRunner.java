@@ -0,0 +1,163 @@
+package com.roxiemobile.androidcommons.concurrent;
+
+import android.support.annotation.NonNull;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs a task over the chunks of a range on an executor.
+ * <p>
+ * The calling thread takes part in the work and picks up the chunks no worker has started yet,
+ * so the run completes even if the executor is saturated or backed up, or the caller is one of its threads.
+ * When several chunks fail, the failure of the lowest chunk is rethrown, which is the failure
+ * a sequential run would have stopped at. The chunks past a failed one are skipped.
+ */
+public final class ChunkRunner
+{
+// MARK: - Construction
+
+    private ChunkRunner(int size, int chunkSize, ChunkTask<?> task) {
+        mTask = task;
+        mSize = size;
+        mChunkSize = chunkSize;
+        mChunkCount = (size + chunkSize - 1) / chunkSize;
+
+        mFailures = new AtomicReferenceArray<>(mChunkCount);
+        mLatch = new CountDownLatch(mChunkCount);
+    }
+
+// MARK: - Methods
+
+    /**
+     * Runs the task over the chunks of the range {@code [0, size)} and throws the failure of the lowest chunk, if any.
+     * Returns once every chunk has been run or skipped.
+     */
+    public static <E extends Exception> void run(@NonNull Executor executor, int size, int chunkSize,
+            @NonNull ChunkTask<E> task) throws E {
+        Guard.notNull(executor, "executor is null");
+        Guard.notNull(task, "task is null");
+        Guard.isTrue(size >= 0, "size < 0");
+        Guard.isTrue(chunkSize > 0, "chunkSize <= 0");
+
+        ChunkRunner runner = new ChunkRunner(size, chunkSize, task);
+
+        // Start the helpers, the calling thread is one of the workers as well
+        int helperCount = Math.min(runner.mChunkCount, CPU_COUNT) - 1;
+        for (int idx = 0; idx < helperCount; ++idx) {
+            try {
+                executor.execute(runner::work);
+            }
+            catch (RejectedExecutionException e) {
+                // The remaining chunks will be run by the calling thread
+                break;
+            }
+        }
+
+        runner.work();
+        runner.await();
+        runner.rethrow();
+    }
+
+// MARK: - Private Methods
+
+    private void work() {
+        int chunk;
+        while ((chunk = mNextChunk.getAndIncrement()) < mChunkCount) {
+            // Chunks past the failed one do not matter anymore
+            if (chunk < mLowestFailure.get()) {
+                int start = chunk * mChunkSize;
+                int end = Math.min(start + mChunkSize, mSize);
+
+                try {
+                    mTask.run(start, end);
+                }
+                catch (Exception | Error e) {
+                    mFailures.set(chunk, e);
+                    lowerFailure(chunk);
+                }
+            }
+            mLatch.countDown();
+        }
+    }
+
+    private void lowerFailure(int chunk) {
+        int lowest;
+        while (chunk < (lowest = mLowestFailure.get()) && !mLowestFailure.compareAndSet(lowest, chunk)) {
+            // Retry
+        }
+    }
+
+    private void await() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                mLatch.await();
+                break;
+            }
+            catch (InterruptedException e) {
+                // The chunks taken by the workers must be finished before the caller can go on
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> void rethrow() throws E {
+        int chunk = mLowestFailure.get();
+        if (chunk == Integer.MAX_VALUE) {
+            return;
+        }
+
+        Throwable failure = mFailures.get(chunk);
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        // Only the checked exceptions of the task are caught
+        throw (E) failure;
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * Runs the task over the range {@code [start, end)} sequentially.
+     */
+    public interface ChunkTask<E extends Exception>
+    {
+        void run(int start, int end) throws E;
+    }
+
+// MARK: - Constants
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+// MARK: - Variables
+
+    private final ChunkTask<?> mTask;
+
+    private final int mSize;
+
+    private final int mChunkSize;
+
+    private final int mChunkCount;
+
+    private final AtomicInteger mNextChunk = new AtomicInteger();
+
+    private final AtomicInteger mLowestFailure = new AtomicInteger(Integer.MAX_VALUE);
+
+    private final AtomicReferenceArray<Throwable> mFailures;
+
+    private final CountDownLatch mLatch;
+}
@@ -0,0 +1,363 @@
+package com.roxiemobile.androidcommons.concurrent;
+
+import android.support.annotation.NonNull;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An executor service that runs its tasks on a fixed number of background threads in the order of their priority,
+ * tasks of the same priority run in the order they were submitted. The queue is bounded, a task that does not fit
+ * into it is handled according to the {@link BackPressurePolicy}.
+ * <p>
+ * The depth of the queue, the time the tasks have waited in it and the number of completed, discarded and
+ * rejected tasks are counted. The shared executors of the {@link TaskLane}s cannot be shut down.
+ */
+public final class LaneExecutor extends AbstractExecutorService
+{
+// MARK: - Construction
+
+    public LaneExecutor(@NonNull String name, int threadCount, int threadPriority, int capacity,
+            @NonNull BackPressurePolicy policy) {
+        this(name, threadCount, threadPriority, capacity, policy, false);
+    }
+
+    private LaneExecutor(@NonNull String name, int threadCount, int threadPriority, int capacity,
+            @NonNull BackPressurePolicy policy, boolean shared) {
+        Guard.notEmpty(name, "name is empty");
+        Guard.isTrue(threadCount > 0, "threadCount <= 0");
+        Guard.isTrue(capacity > 0, "capacity <= 0");
+        Guard.notNull(policy, "policy is null");
+
+        mName = name;
+        mCapacity = capacity;
+        mPolicy = policy;
+        mShared = shared;
+
+        // The queue is unbounded for the pool, so it never grows beyond the core threads
+        mThreadPool = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE, TimeUnit.SECONDS, mQueue,
+                newThreadFactory(name, threadPriority));
+        mThreadPool.allowCoreThreadTimeOut(true);
+    }
+
+    public static LaneExecutor shared(@NonNull TaskLane lane) {
+        Guard.notNull(lane, "lane is null");
+        return SingletonHolder.SHARED_INSTANCES.get(lane);
+    }
+
+    private static class SingletonHolder {
+        private static final Map<TaskLane, LaneExecutor> SHARED_INSTANCES = new EnumMap<>(TaskLane.class);
+
+        static {
+            SHARED_INSTANCES.put(TaskLane.CPU, new LaneExecutor("CpuLaneExecutor", CPU_COUNT + 1,
+                    android.os.Process.THREAD_PRIORITY_BACKGROUND, 128, BackPressurePolicy.CALLER_RUNS, true));
+            SHARED_INSTANCES.put(TaskLane.IO, new LaneExecutor("IoLaneExecutor", CPU_COUNT * 2 + 1,
+                    android.os.Process.THREAD_PRIORITY_BACKGROUND, 256, BackPressurePolicy.CALLER_RUNS, true));
+            SHARED_INSTANCES.put(TaskLane.PREFETCH, new LaneExecutor("PrefetchLaneExecutor", 1,
+                    android.os.Process.THREAD_PRIORITY_LOWEST, 64, BackPressurePolicy.DISCARD_LOWEST_PRIORITY, true));
+        }
+    }
+
+// MARK: - Properties
+
+    public @NonNull String name() {
+        return mName;
+    }
+
+    public int capacity() {
+        return mCapacity;
+    }
+
+    public @NonNull BackPressurePolicy policy() {
+        return mPolicy;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     */
+    public int queueDepth() {
+        return mQueue.size();
+    }
+
+    public long completedTaskCount() {
+        return mCompletedTaskCount.get();
+    }
+
+    public long callerRunsCount() {
+        return mCallerRunsCount.get();
+    }
+
+    public long discardedTaskCount() {
+        return mDiscardedTaskCount.get();
+    }
+
+    public long rejectedTaskCount() {
+        return mRejectedTaskCount.get();
+    }
+
+    /**
+     * Returns the average time the started tasks have waited in the queue. Tasks run by the caller are not counted.
+     */
+    public long averageWaitTime(@NonNull TimeUnit unit) {
+        long startedTaskCount = mStartedTaskCount.get();
+        return (startedTaskCount > 0) ? unit.convert(mTotalWaitNanos.get() / startedTaskCount, TimeUnit.NANOSECONDS) : 0L;
+    }
+
+    /**
+     * Returns the longest time a started task has waited in the queue.
+     */
+    public long maxWaitTime(@NonNull TimeUnit unit) {
+        return unit.convert(mMaxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+// MARK: - Methods
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        execute(runnable, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Executes the task after the queued tasks of the same or a higher priority.
+     */
+    public void execute(@NonNull Runnable runnable, int priority) {
+        Guard.notNull(runnable, "runnable is null");
+        PrioritizedTask task = new PrioritizedTask(runnable, priority, mSequence.getAndIncrement());
+
+        // The check and the insertion are atomic, so concurrent producers cannot overfill the queue
+        PrioritizedTask discardedTask = null;
+        synchronized (mLock) {
+            if (mQueue.size() < mCapacity) {
+                mThreadPool.execute(task);
+                return;
+            }
+
+            if (mPolicy == BackPressurePolicy.DISCARD_LOWEST_PRIORITY) {
+                discardedTask = findTaskToDiscard(task);
+                if (discardedTask != task) {
+                    mThreadPool.execute(task);
+                }
+            }
+        }
+
+        switch (mPolicy) {
+            case ABORT:
+                mRejectedTaskCount.incrementAndGet();
+                throw new RejectedExecutionException("Queue of " + mName + " is full");
+
+            case CALLER_RUNS:
+                if (mThreadPool.isShutdown()) {
+                    mRejectedTaskCount.incrementAndGet();
+                    throw new RejectedExecutionException(mName + " is shut down");
+                }
+                mCallerRunsCount.incrementAndGet();
+                runnable.run();
+                break;
+
+            case DISCARD_LOWEST_PRIORITY:
+                if (discardedTask != null) {
+                    mDiscardedTaskCount.incrementAndGet();
+                    if (discardedTask.mRunnable instanceof Future) {
+                        ((Future<?>) discardedTask.mRunnable).cancel(false);
+                    }
+                }
+                break;
+        }
+    }
+
+    public @NonNull Future<?> submit(@NonNull Runnable runnable, int priority) {
+        Guard.notNull(runnable, "runnable is null");
+
+        RunnableFuture<Void> future = newTaskFor(runnable, null);
+        execute(future, priority);
+
+        // Done
+        return future;
+    }
+
+    public @NonNull <T> Future<T> submit(@NonNull Callable<T> callable, int priority) {
+        Guard.notNull(callable, "callable is null");
+
+        RunnableFuture<T> future = newTaskFor(callable);
+        execute(future, priority);
+
+        // Done
+        return future;
+    }
+
+    /**
+     * Not supported by the shared executors and throws an exception when used.
+     */
+    @Override
+    public void shutdown() {
+        checkNotShared();
+        mThreadPool.shutdown();
+    }
+
+    /**
+     * Not supported by the shared executors and throws an exception when used.
+     */
+    @Override
+    public @NonNull List<Runnable> shutdownNow() {
+        checkNotShared();
+        return mThreadPool.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return mThreadPool.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return mThreadPool.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return mThreadPool.awaitTermination(timeout, unit);
+    }
+
+// MARK: - Private Methods
+
+    /**
+     * Returns the task that would run last, i.e. either a queued task removed from the queue or the new one,
+     * or {@code null} if a worker has taken the queued task in the meantime.
+     */
+    private PrioritizedTask findTaskToDiscard(PrioritizedTask task) {
+        PrioritizedTask lowestTask = task;
+        for (Runnable queued : mQueue) {
+            PrioritizedTask queuedTask = (PrioritizedTask) queued;
+            if (queuedTask.compareTo(lowestTask) > 0) {
+                lowestTask = queuedTask;
+            }
+        }
+
+        // Done
+        return (lowestTask == task || mQueue.remove(lowestTask)) ? lowestTask : null;
+    }
+
+    private void checkNotShared() {
+        if (mShared) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(final String name, final int threadPriority) {
+        return new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger(1);
+
+            public Thread newThread(final @NonNull Runnable runnable) {
+                String threadName = name + " #" + mCount.getAndIncrement();
+
+                return new Thread(() -> {
+                    android.os.Process.setThreadPriority(threadPriority);
+                    runnable.run();
+                }, threadName);
+            }
+        };
+    }
+
+// MARK: - Inner Types
+
+    private final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask>
+    {
+        PrioritizedTask(Runnable runnable, int priority, long sequence) {
+            mRunnable = runnable;
+            mPriority = priority;
+            mSequence = sequence;
+            mEnqueueNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            long waitNanos = System.nanoTime() - mEnqueueNanos;
+            mStartedTaskCount.incrementAndGet();
+            mTotalWaitNanos.addAndGet(waitNanos);
+
+            long maxWaitNanos = mMaxWaitNanos.get();
+            while (waitNanos > maxWaitNanos && !mMaxWaitNanos.compareAndSet(maxWaitNanos, waitNanos)) {
+                maxWaitNanos = mMaxWaitNanos.get();
+            }
+
+            try {
+                mRunnable.run();
+            }
+            finally {
+                mCompletedTaskCount.incrementAndGet();
+            }
+        }
+
+        /**
+         * Orders the tasks with a higher priority first, then the ones submitted earlier.
+         */
+        @Override
+        public int compareTo(@NonNull PrioritizedTask other) {
+            if (mPriority != other.mPriority) {
+                return (mPriority > other.mPriority) ? -1 : 1;
+            }
+            return (mSequence < other.mSequence) ? -1 : ((mSequence == other.mSequence) ? 0 : 1);
+        }
+
+        private final Runnable mRunnable;
+
+        private final int mPriority;
+
+        private final long mSequence;
+
+        private final long mEnqueueNanos;
+    }
+
+// MARK: - Constants
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int KEEP_ALIVE = 30;
+
+// MARK: - Variables
+
+    private final String mName;
+
+    private final int mCapacity;
+
+    private final BackPressurePolicy mPolicy;
+
+    private final boolean mShared;
+
+    private final Object mLock = new Object();
+
+    private final PriorityBlockingQueue<Runnable> mQueue = new PriorityBlockingQueue<>();
+
+    private final ThreadPoolExecutor mThreadPool;
+
+    private final AtomicLong mSequence = new AtomicLong();
+
+    private final AtomicLong mStartedTaskCount = new AtomicLong();
+
+    private final AtomicLong mCompletedTaskCount = new AtomicLong();
+
+    private final AtomicLong mCallerRunsCount = new AtomicLong();
+
+    private final AtomicLong mDiscardedTaskCount = new AtomicLong();
+
+    private final AtomicLong mRejectedTaskCount = new AtomicLong();
+
+    private final AtomicLong mTotalWaitNanos = new AtomicLong();
+
+    private final AtomicLong mMaxWaitNanos = new AtomicLong();
+}
@@ -0,0 +1,26 @@
+package com.roxiemobile.androidcommons.concurrent;
+
+/**
+ * Defines the shared {@link LaneExecutor} a task runs on, so tasks of different kinds do not compete
+ * for the same threads.
+ */
+public enum TaskLane
+{
+    /**
+     * CPU-bound work, e.g. JSON parsing, validation or image decoding. Runs on about as many threads as
+     * there are processors, a task that does not fit into the queue runs on the calling thread.
+     */
+    CPU,
+
+    /**
+     * I/O-bound work that spends most of its time waiting, e.g. disk or network access. Runs on more
+     * threads than there are processors, a task that does not fit into the queue runs on the calling thread.
+     */
+    IO,
+
+    /**
+     * Low-priority speculative work, e.g. prefetching or warming up caches. Runs on a single thread with
+     * the lowest priority, the task that would run last is discarded when the queue is full.
+     */
+    PREFETCH
+}
@@ -1,33 +1,46 @@
 package com.roxiemobile.androidcommons.data.mapper;
 
+import com.annimon.stream.function.Consumer;
+import com.annimon.stream.function.Supplier;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.internal.Streams;
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonWriter;
+import com.roxiemobile.androidcommons.concurrent.LaneExecutor;
+import com.roxiemobile.androidcommons.concurrent.ParallelWorkerThreadExecutor;
+import com.roxiemobile.androidcommons.concurrent.TaskLane;
 import com.roxiemobile.androidcommons.data.Constants.Charsets;
 import com.roxiemobile.androidcommons.data.Constants.DateFormat;
 import com.roxiemobile.androidcommons.data.mapper.adapter.DateAdapter;
+import com.roxiemobile.androidcommons.data.mapper.adapter.DeferredPostValidation;
 import com.roxiemobile.androidcommons.data.mapper.adapter.EnumStringConverter;
 import com.roxiemobile.androidcommons.data.mapper.adapter.EnumTypeAdapterFactory;
 import com.roxiemobile.androidcommons.data.mapper.adapter.PostValidatableObjectTypeAdapterFactory;
 import com.roxiemobile.androidcommons.data.mapper.adapter.TimestampAdapter;
 import com.roxiemobile.androidcommons.data.mapper.adapter.URIAdapter;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
 import com.roxiemobile.androidcommons.util.IOUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.ServiceLoader;
+import java.util.concurrent.Future;
 
 public final class DataMapper
 {
@@ -63,6 +76,104 @@ public final class DataMapper
         return GsonHolder.shared().fromJson(json, typeOfT);
     }
 
+    public static <T> T fromJson(byte[] json, Class<T> classOfT) throws JsonSyntaxException, JsonIOException {
+        return fromJson(json, (Type) classOfT);
+    }
+
+    public static <T> T fromJson(byte[] json, Type typeOfT) throws JsonSyntaxException, JsonIOException {
+        return (json != null) ? fromJson(new ByteArrayInputStream(json), typeOfT) : null;
+    }
+
+    /**
+     * Decodes an UTF-8 encoded JSON stream. The stream is not closed by this method.
+     */
+    public static <T> T fromJson(InputStream json, Class<T> classOfT) throws JsonSyntaxException, JsonIOException {
+        return fromJson(json, (Type) classOfT);
+    }
+
+    /**
+     * Decodes an UTF-8 encoded JSON stream. The stream is not closed by this method.
+     */
+    public static <T> T fromJson(InputStream json, Type typeOfT) throws JsonSyntaxException, JsonIOException {
+        return (json != null) ? fromJson(new InputStreamReader(json, Charsets.UTF_8), typeOfT) : null;
+    }
+
+// MARK: - Methods: JSON to POJO with post-validation mode
+
+    public static <T> T fromJson(String json, Class<T> classOfT, PostValidationMode mode) throws JsonSyntaxException {
+        return fromJson(json, (Type) classOfT, mode);
+    }
+
+    public static <T> T fromJson(String json, Type typeOfT, PostValidationMode mode) throws JsonSyntaxException {
+        return withPostValidation(mode, () -> GsonHolder.shared().fromJson(json, typeOfT));
+    }
+
+    public static <T> T fromJson(JsonElement json, Class<T> classOfT, PostValidationMode mode) throws JsonSyntaxException {
+        return fromJson(json, (Type) classOfT, mode);
+    }
+
+    public static <T> T fromJson(JsonElement json, Type typeOfT, PostValidationMode mode) throws JsonSyntaxException {
+        return withPostValidation(mode, () -> GsonHolder.shared().fromJson(json, typeOfT));
+    }
+
+    public static <T> T fromJson(Reader json, Class<T> classOfT, PostValidationMode mode)
+            throws JsonSyntaxException, JsonIOException {
+        return fromJson(json, (Type) classOfT, mode);
+    }
+
+    public static <T> T fromJson(Reader json, Type typeOfT, PostValidationMode mode)
+            throws JsonSyntaxException, JsonIOException {
+        return withPostValidation(mode, () -> GsonHolder.shared().fromJson(json, typeOfT));
+    }
+
+// MARK: - Methods: JSON array to POJOs
+
+    /**
+     * Returns an iterator that decodes the elements of a top-level JSON array one at a time.
+     * The caller is responsible for closing the iterator.
+     */
+    public static <T> JsonArrayIterator<T> streamArray(Reader json, Class<T> classOfT) {
+        return streamArray(json, (Type) classOfT);
+    }
+
+    /**
+     * Returns an iterator that decodes the elements of a top-level JSON array one at a time.
+     * The caller is responsible for closing the iterator.
+     */
+    public static <T> JsonArrayIterator<T> streamArray(Reader json, Type typeOfT) {
+        Guard.notNull(json, "json is null");
+        Guard.notNull(typeOfT, "typeOfT is null");
+
+        Gson gson = GsonHolder.shared();
+        @SuppressWarnings("unchecked")
+        TypeAdapter<T> adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(typeOfT));
+
+        return new JsonArrayIterator<>(gson.newJsonReader(json), adapter);
+    }
+
+    /**
+     * Decodes the elements of a top-level JSON array one at a time and passes each of them to the action.
+     * The reader is not closed by this method.
+     */
+    public static <T> void streamArray(Reader json, Class<T> classOfT, Consumer<? super T> action)
+            throws JsonSyntaxException, JsonIOException {
+        streamArray(json, (Type) classOfT, action);
+    }
+
+    /**
+     * Decodes the elements of a top-level JSON array one at a time and passes each of them to the action.
+     * The reader is not closed by this method.
+     */
+    public static <T> void streamArray(Reader json, Type typeOfT, Consumer<? super T> action)
+            throws JsonSyntaxException, JsonIOException {
+        Guard.notNull(action, "action is null");
+
+        JsonArrayIterator<T> iterator = streamArray(json, typeOfT);
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+        }
+    }
+
 // MARK: - Methods: POJO to JSON
 
     public static String toJson(Object src, Type typeOfSrc) {
@@ -73,6 +184,46 @@ public final class DataMapper
         return GsonHolder.shared().toJson(src);
     }
 
+    /**
+     * Writes an UTF-8 encoded JSON representation of the object to the stream without building
+     * an intermediate tree or string. The stream is flushed but not closed by this method.
+     */
+    public static void toJson(Object src, OutputStream out) throws JsonIOException {
+        Guard.notNull(out, "out is null");
+
+        Utf8StreamWriter writer = new Utf8StreamWriter(out);
+        try {
+            GsonHolder.shared().toJson(src, writer);
+            writer.flush();
+        }
+        catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Writes an UTF-8 encoded JSON representation of the object of the specified type to the stream
+     * without building an intermediate tree or string. The stream is flushed but not closed by this method.
+     */
+    public static void writeTo(Object src, Type typeOfSrc, OutputStream out) throws JsonIOException {
+        Guard.notNull(out, "out is null");
+
+        Utf8StreamWriter writer = new Utf8StreamWriter(out);
+        try {
+            GsonHolder.shared().toJson(src, typeOfSrc, writer);
+            writer.flush();
+        }
+        catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        finally {
+            writer.release();
+        }
+    }
+
     public static JsonElement toJsonTree(Object src, Type typeOfSrc) {
         return GsonHolder.shared().toJsonTree(src, typeOfSrc);
     }
@@ -87,7 +238,7 @@ public final class DataMapper
         byte[] result = null;
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        OutputStreamWriter streamWriter = new OutputStreamWriter(outputStream, Charsets.UTF_8);
+        Utf8StreamWriter streamWriter = new Utf8StreamWriter(outputStream);
         JsonWriter jsonWriter = new JsonWriter(streamWriter);
         try {
             jsonWriter.setLenient(true);
@@ -100,7 +251,7 @@ public final class DataMapper
         }
         finally {
             IOUtils.closeQuietly(jsonWriter);
-            IOUtils.closeQuietly(outputStream);
+            streamWriter.release();
         }
 
         return result;
@@ -108,11 +259,60 @@ public final class DataMapper
 
 // MARK: - Methods
 
+    /**
+     * Creates the shared Gson instance and the type adapters for the specified classes on a worker thread,
+     * so the first parse on the UI thread does not pay for the reflection and class loading.
+     * Type adapter factories that must be picked up here are registered via {@code ServiceLoader}.
+     * <p>
+     * The warm-up runs on the {@link TaskLane#PREFETCH} lane and never on the calling thread. If the lane
+     * is full, the warm-up may be discarded, its future is cancelled then and the adapters are created
+     * on the first use as usual.
+     */
+    public static Future<?> warmUp(Class<?>... classes) {
+        final Class<?>[] classesToWarmUp = (classes != null) ? classes.clone() : new Class<?>[0];
+
+        return LaneExecutor.shared(TaskLane.PREFETCH).submit(() -> {
+            Gson gson = GsonHolder.shared();
+
+            // Adapters are cached by Gson, nested types are resolved along the way
+            for (Class<?> classOfT : classesToWarmUp) {
+                if (classOfT != null) {
+                    gson.getAdapter(classOfT);
+                }
+            }
+        });
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> EnumStringConverter<T> getEnumStringConverter(Class<T> enumClass) {
         return (EnumStringConverter<T>) GsonHolder.shared().getAdapter(enumClass);
     }
 
+// MARK: - Private Methods
+
+    private static <T> T withPostValidation(PostValidationMode mode, Supplier<T> reader) throws JsonSyntaxException {
+        Guard.notNull(mode, "mode is null");
+
+        if (mode == PostValidationMode.INLINE) {
+            return reader.get();
+        }
+
+        T result;
+        DeferredPostValidation validation = DeferredPostValidation.begin();
+        try {
+            result = reader.get();
+        }
+        finally {
+            validation.end();
+        }
+
+        // Objects that are read by the validators themselves are validated inline
+        validation.validate((mode == PostValidationMode.PARALLEL) ? ParallelWorkerThreadExecutor.shared() : null);
+
+        // Done
+        return result;
+    }
+
 // MARK: - Inner Types
 
     private static class GsonHolder
@@ -0,0 +1,139 @@
+package com.roxiemobile.androidcommons.data.mapper;
+
+import android.support.annotation.NonNull;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that decodes the elements of a top-level JSON array one at a time.
+ * <p>
+ * Only the current element is held in memory, so the peak memory usage is bounded by the size
+ * of the largest element instead of the size of the whole document. A JSON {@code null} in place
+ * of the array is treated as an empty array.
+ */
+public final class JsonArrayIterator<T> implements Iterator<T>, Closeable
+{
+// MARK: - Construction
+
+    JsonArrayIterator(@NonNull JsonReader reader, @NonNull TypeAdapter<T> adapter) {
+        Guard.notNull(reader, "reader is null");
+        Guard.notNull(adapter, "adapter is null");
+
+        mReader = reader;
+        mAdapter = adapter;
+
+        // Be as liberal as Gson#fromJson(JsonReader, Type) is
+        mReader.setLenient(true);
+    }
+
+// MARK: - Methods
+
+    @Override
+    public boolean hasNext() throws JsonSyntaxException, JsonIOException {
+        boolean result = false;
+
+        if (mState != State.DONE) {
+            try {
+                if (mState == State.INITIAL) {
+                    if (mReader.peek() == JsonToken.NULL) {
+                        mReader.nextNull();
+                        finish();
+                    }
+                    else {
+                        mReader.beginArray();
+                        mState = State.STARTED;
+                    }
+                }
+
+                if (mState == State.STARTED) {
+                    result = mReader.hasNext();
+                    if (!result) {
+                        mReader.endArray();
+                        finish();
+                    }
+                }
+            }
+            catch (EOFException | MalformedJsonException | IllegalStateException | NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
+            catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        // Done
+        return result;
+    }
+
+    @Override
+    public T next() throws JsonSyntaxException, JsonIOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            return mAdapter.read(mReader);
+        }
+        catch (EOFException | MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+        catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Not supported and throws an exception when used.
+     */
+    @Deprecated
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Closes the underlying reader. Elements that were not iterated yet are discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        mState = State.DONE;
+        mReader.close();
+    }
+
+// MARK: - Private Methods
+
+    private void finish() throws IOException {
+        mState = State.DONE;
+
+        // Same check as in Gson#assertFullConsumption
+        if (mReader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonIOException("JSON document was not fully consumed.");
+        }
+    }
+
+// MARK: - Inner Types
+
+    private enum State {
+        INITIAL, STARTED, DONE
+    }
+
+// MARK: - Variables
+
+    private final JsonReader mReader;
+
+    private final TypeAdapter<T> mAdapter;
+
+    private State mState = State.INITIAL;
+}
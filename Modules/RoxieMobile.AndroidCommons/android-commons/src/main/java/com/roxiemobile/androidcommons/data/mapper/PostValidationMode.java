@@ -0,0 +1,24 @@
+package com.roxiemobile.androidcommons.data.mapper;
+
+/**
+ * Defines when {@link com.roxiemobile.androidcommons.data.model.PostValidatable} objects are validated
+ * while reading JSON.
+ */
+public enum PostValidationMode
+{
+    /**
+     * Every object is validated as soon as it is read.
+     */
+    INLINE,
+
+    /**
+     * Objects are collected while reading and validated on the calling thread once the read has finished.
+     */
+    DEFERRED,
+
+    /**
+     * Objects are collected while reading and validated in parallel on the {@code ParallelWorkerThreadExecutor}
+     * once the read has finished. Validation must not depend on the thread it runs on.
+     */
+    PARALLEL
+}
@@ -0,0 +1,195 @@
+package com.roxiemobile.androidcommons.data.mapper;
+
+import android.support.annotation.NonNull;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A writer that encodes characters as UTF-8 directly into an {@code OutputStream}.
+ * <p>
+ * Unlike {@code OutputStreamWriter} it does not allocate an encoder and a byte buffer per instance:
+ * the byte buffer is borrowed from a per-thread pool and given back by {@link #release()}.
+ * Malformed surrogate pairs are replaced with {@code '?'} like the platform encoder does.
+ */
+final class Utf8StreamWriter extends Writer
+{
+// MARK: - Construction
+
+    Utf8StreamWriter(@NonNull OutputStream outputStream) {
+        Guard.notNull(outputStream, "outputStream is null");
+
+        mOutputStream = outputStream;
+        mBuffer = acquireBuffer();
+    }
+
+// MARK: - Methods
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(@NonNull char[] cbuf, int off, int len) throws IOException {
+        for (int idx = off, end = off + len; idx < end; ++idx) {
+            encode(cbuf[idx]);
+        }
+    }
+
+    @Override
+    public void write(@NonNull String str, int off, int len) throws IOException {
+        for (int idx = off, end = off + len; idx < end; ++idx) {
+            encode(str.charAt(idx));
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        CharSequence value = (csq != null) ? csq : "null";
+        for (int idx = 0, end = value.length(); idx < end; ++idx) {
+            encode(value.charAt(idx));
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        mOutputStream.flush();
+    }
+
+    /**
+     * Flushes the encoded bytes and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (mBuffer != null) {
+            try {
+                if (mHighSurrogate != 0) {
+                    // Nothing will complete the pair anymore
+                    mHighSurrogate = 0;
+                    writeByte('?');
+                }
+
+                flush();
+                mOutputStream.close();
+            }
+            finally {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Gives the byte buffer back to the pool without flushing or closing anything.
+     * The writer must not be used afterwards.
+     */
+    void release() {
+        if (mBuffer != null) {
+            sBufferPool.set(mBuffer);
+            mBuffer = null;
+            mCount = 0;
+        }
+    }
+
+// MARK: - Private Methods
+
+    private void encode(char ch) throws IOException {
+        if (mBuffer == null) {
+            throw new IOException("Writer is released");
+        }
+
+        if (mHighSurrogate != 0) {
+            char high = mHighSurrogate;
+            mHighSurrogate = 0;
+
+            if (Character.isLowSurrogate(ch)) {
+                writeCodePoint(Character.toCodePoint(high, ch));
+                return;
+            }
+            writeByte('?');
+        }
+
+        if (ch < 0x80) {
+            writeByte(ch);
+        }
+        else if (ch < 0x800) {
+            ensureCapacity(2);
+            mBuffer[mCount++] = (byte) (0xC0 | (ch >> 6));
+            mBuffer[mCount++] = (byte) (0x80 | (ch & 0x3F));
+        }
+        else if (Character.isHighSurrogate(ch)) {
+            mHighSurrogate = ch;
+        }
+        else if (Character.isLowSurrogate(ch)) {
+            writeByte('?');
+        }
+        else {
+            ensureCapacity(3);
+            mBuffer[mCount++] = (byte) (0xE0 | (ch >> 12));
+            mBuffer[mCount++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            mBuffer[mCount++] = (byte) (0x80 | (ch & 0x3F));
+        }
+    }
+
+    private void writeCodePoint(int codePoint) throws IOException {
+        ensureCapacity(4);
+        mBuffer[mCount++] = (byte) (0xF0 | (codePoint >> 18));
+        mBuffer[mCount++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        mBuffer[mCount++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        mBuffer[mCount++] = (byte) (0x80 | (codePoint & 0x3F));
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensureCapacity(1);
+        mBuffer[mCount++] = (byte) value;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (mCount + length > mBuffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (mCount > 0) {
+            mOutputStream.write(mBuffer, 0, mCount);
+            mCount = 0;
+        }
+    }
+
+    private static byte[] acquireBuffer() {
+        byte[] buffer = sBufferPool.get();
+
+        if (buffer != null) {
+            // Nested writers on the same thread get their own buffer
+            sBufferPool.set(null);
+        }
+        else {
+            buffer = new byte[BUFFER_SIZE];
+        }
+
+        // Done
+        return buffer;
+    }
+
+// MARK: - Constants
+
+    private static final int BUFFER_SIZE = 1024 * 8;
+
+// MARK: - Variables
+
+    private static final ThreadLocal<byte[]> sBufferPool = new ThreadLocal<>();
+
+    private final OutputStream mOutputStream;
+
+    private byte[] mBuffer;
+
+    private int mCount;
+
+    private char mHighSurrogate;
+}
@@ -23,11 +23,21 @@ public class DateAdapter extends TypeAdapter<Date>
 
         // Create object from JSON string
         if (in.peek() != JsonToken.NULL) {
-            try {
-                date = FORMATTER.get().parse(in.nextString());
+            String value = in.nextString();
+            SimpleDateFormat formatter = FORMATTER.get();
+
+            // Fast path for canonical values, SimpleDateFormat handles the rest
+            long millis = Iso8601Format.parseDate(value, formatter.getTimeZone());
+            if (millis != Iso8601Format.INVALID) {
+                date = new Date(millis);
             }
-            catch (ParseException e) {
-                throw new JsonSyntaxException(e);
+            else {
+                try {
+                    date = formatter.parse(value);
+                }
+                catch (ParseException e) {
+                    throw new JsonSyntaxException(e);
+                }
             }
         }
         else {
@@ -40,7 +50,18 @@ public class DateAdapter extends TypeAdapter<Date>
 
     @Override
     public void write(JsonWriter writer, Date date) throws IOException {
-        writer.value(date != null ? FORMATTER.get().format(date) : null);
+        String value = null;
+
+        if (date != null) {
+            SimpleDateFormat formatter = FORMATTER.get();
+
+            value = Iso8601Format.formatDate(date.getTime(), formatter.getTimeZone());
+            if (value == null) {
+                value = formatter.format(date);
+            }
+        }
+
+        writer.value(value);
     }
 
 // MARK: - Inner Types
@@ -0,0 +1,121 @@
+package com.roxiemobile.androidcommons.data.mapper.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.JsonSyntaxException;
+import com.roxiemobile.androidcommons.concurrent.ChunkRunner;
+import com.roxiemobile.androidcommons.data.model.PostValidatable;
+import com.roxiemobile.androidcommons.diagnostics.CheckException;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Collects {@link PostValidatable} instances read on the current thread instead of validating them
+ * right away, so the whole object graph can be validated once the read has finished.
+ * <p>
+ * The instances are validated in the order they were read, i.e. nested objects before their parents,
+ * the same order {@link PostValidatableObjectTypeAdapterFactory} validates them inline.
+ */
+public final class DeferredPostValidation
+{
+// MARK: - Construction
+
+    private DeferredPostValidation(DeferredPostValidation previous) {
+        mPrevious = previous;
+    }
+
+// MARK: - Methods
+
+    /**
+     * Starts collecting the instances read on the current thread. Must be paired with {@link #end()}.
+     */
+    public static @NonNull DeferredPostValidation begin() {
+        DeferredPostValidation scope = new DeferredPostValidation(sCurrentScope.get());
+        sCurrentScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Stops collecting the instances and restores the enclosing scope, if any.
+     */
+    public void end() {
+        if (sCurrentScope.get() == this) {
+            sCurrentScope.set(mPrevious);
+        }
+    }
+
+    /**
+     * Validates the collected instances on the calling thread or, if an executor is specified,
+     * in parallel chunks. In both cases the failure of the earliest read instance is reported.
+     * <p>
+     * The calling thread validates the chunks no worker has started yet, so the validation completes
+     * even if it runs on a worker of the same executor.
+     */
+    public void validate(@Nullable ExecutorService executor) throws JsonSyntaxException {
+        int size = mInstances.size();
+
+        try {
+            if (executor == null || size < MIN_PARALLEL_SIZE) {
+                validateRange(0, size);
+            }
+            else {
+                int chunkCount = Math.min(CPU_COUNT, (size + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE);
+                ChunkRunner.run(executor, size, (size + chunkCount - 1) / chunkCount, this::validateRange);
+            }
+        }
+        catch (CheckException e) {
+            throw new JsonSyntaxException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the instance was taken by the current scope and should not be validated inline.
+     */
+    static boolean offer(@NonNull PostValidatable instance) {
+        DeferredPostValidation scope = sCurrentScope.get();
+        if (scope != null) {
+            scope.mInstances.add(instance);
+        }
+        return (scope != null);
+    }
+
+    /**
+     * Validates the instance and translates a failed check to the exception reported by Gson.
+     */
+    static void validate(@NonNull PostValidatable instance) throws JsonSyntaxException {
+        Guard.notNull(instance, "instance is null");
+        try {
+            instance.validate();
+        }
+        catch (CheckException e) {
+            throw new JsonSyntaxException(e.getMessage(), e);
+        }
+    }
+
+// MARK: - Private Methods
+
+    private void validateRange(int start, int end) {
+        for (int idx = start; idx < end; ++idx) {
+            mInstances.get(idx).validate();
+        }
+    }
+
+// MARK: - Constants
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private static final int MIN_CHUNK_SIZE = 32;
+    private static final int MIN_PARALLEL_SIZE = MIN_CHUNK_SIZE * 2;
+
+// MARK: - Variables
+
+    private static final ThreadLocal<DeferredPostValidation> sCurrentScope = new ThreadLocal<>();
+
+    private final DeferredPostValidation mPrevious;
+
+    private final List<PostValidatable> mInstances = new ArrayList<>();
+}
@@ -17,6 +17,7 @@ import com.roxiemobile.androidcommons.data.CommonKeys;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,9 @@ public class EnumTypeAdapterFactory implements TypeAdapterFactory
             implements EnumStringConverter<T>
     {
         private CustomEnumTypeAdapter(Class<T> classOfT) {
+            Map<String, T> nameToConstant = new HashMap<>();
+            mConstantToName = new EnumMap<>(classOfT);
+
             try {
                 for (T constant : classOfT.getEnumConstants()) {
                     String name = constant.name();
@@ -57,15 +61,16 @@ public class EnumTypeAdapterFactory implements TypeAdapterFactory
                         name = annotation.value();
 
                         for (String alias : annotation.alternate()) {
-                            mNameToConstant.put(alias, constant);
+                            nameToConstant.put(alias, constant);
                         }
                     }
 
-                    mNameToConstant.put(name, constant);
+                    nameToConstant.put(name, constant);
                     mConstantToName.put(constant, name);
                 }
 
-                mUnknownTypeValue = mNameToConstant.get(CommonKeys.State.UNDEFINED);
+                mNameToConstant = new NameTable<>(nameToConstant);
+                mUnknownTypeValue = nameToConstant.get(CommonKeys.State.UNDEFINED);
             }
             catch (NoSuchFieldException e) {
                 throw new IllegalStateException("Missing field in " + classOfT.getName(), e);
@@ -118,8 +123,87 @@ public class EnumTypeAdapterFactory implements TypeAdapterFactory
                     Stream.of(values).map(this::getKeyForValue).collect(Collectors.toList()));
         }
 
-        private final Map<String, T> mNameToConstant = new HashMap<>();
-        private final Map<T, String> mConstantToName = new HashMap<>();
+        private final NameTable<T> mNameToConstant;
+        private final Map<T, String> mConstantToName;
         private final T mUnknownTypeValue;
     }
+
+    /**
+     * An immutable perfect hash table from enum names to constants.
+     * <p>
+     * The table size is chosen so that every name lands in its own slot, hence a lookup is a single
+     * hash computation and at most one {@code String#equals} call, with no entry objects to chase.
+     * The rare names that still collide in the largest table are kept in a fallback map, the other
+     * names keep their slots.
+     */
+    static final class NameTable<T>
+    {
+        NameTable(Map<String, T> map) {
+            int size = Integer.highestOneBit(Math.max(map.size(), 1) * 2 - 1) << 1;
+            int maxSize = size << MAX_GROWTH;
+            String[] keys;
+            Map<String, T> overflow;
+
+            // Grow the table until there are no collisions
+            while (true) {
+                keys = new String[size];
+                overflow = null;
+
+                for (Map.Entry<String, T> entry : map.entrySet()) {
+                    int index = indexFor(entry.getKey().hashCode(), size - 1);
+                    if (keys[index] == null) {
+                        keys[index] = entry.getKey();
+                    }
+                    else {
+                        // Only the names still colliding in the largest table are looked up in the fallback map
+                        if (overflow == null) {
+                            overflow = new HashMap<>();
+                        }
+                        overflow.put(entry.getKey(), entry.getValue());
+                    }
+                }
+
+                if (overflow == null || size >= maxSize) {
+                    break;
+                }
+                size <<= 1;
+            }
+
+            Object[] values = new Object[keys.length];
+            for (int idx = 0; idx < keys.length; ++idx) {
+                if (keys[idx] != null) {
+                    values[idx] = map.get(keys[idx]);
+                }
+            }
+
+            mKeys = keys;
+            mValues = values;
+            mMask = keys.length - 1;
+            mOverflow = overflow;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(String key) {
+            if (key == null) {
+                return null;
+            }
+
+            int index = indexFor(key.hashCode(), mMask);
+            if (key.equals(mKeys[index])) {
+                return (T) mValues[index];
+            }
+            return (mOverflow != null) ? mOverflow.get(key) : null;
+        }
+
+        private static int indexFor(int hash, int mask) {
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+        private static final int MAX_GROWTH = 3;
+
+        private final String[] mKeys;
+        private final Object[] mValues;
+        private final int mMask;
+        private final Map<String, T> mOverflow;
+    }
 }
@@ -0,0 +1,260 @@
+package com.roxiemobile.androidcommons.data.mapper.adapter;
+
+import com.roxiemobile.androidcommons.data.Constants.DateFormat;
+
+import java.util.TimeZone;
+
+/**
+ * Allocation-free parser and formatter for the {@link DateFormat#DATE} and
+ * {@link DateFormat#TIMESTAMP_ISO8601} formats.
+ * <p>
+ * Only the canonical form of these formats is handled, i.e. values with all fields in range and years
+ * of the Gregorian calendar ({@value #MIN_YEAR}..{@value #MAX_YEAR}). Parsing methods return
+ * {@link #INVALID} and formatting methods return {@code null} for anything else, so the callers
+ * can fall back to a lenient {@code SimpleDateFormat} and keep its behaviour.
+ */
+final class Iso8601Format
+{
+// MARK: - Construction
+
+    private Iso8601Format() {
+        // Do nothing
+    }
+
+// MARK: - Methods
+
+    /**
+     * Parses a "yyyy-MM-dd" string as the midnight of that day in the specified time zone.
+     * Days with a time zone transition near the midnight are not handled.
+     */
+    static long parseDate(String value, TimeZone zone) {
+        if (value == null || value.length() != DATE_LENGTH) {
+            return INVALID;
+        }
+
+        long days = parseDays(value);
+        if (days == INVALID) {
+            return INVALID;
+        }
+
+        long localMillis = days * MILLIS_PER_DAY;
+        int offset = zone.getOffset(localMillis - zone.getRawOffset());
+        long millis = localMillis - offset;
+
+        // Midnights skipped or repeated by a time zone transition are left to GregorianCalendar
+        if (zone.getOffset(millis) != offset || zone.getOffset(millis - MILLIS_PER_DAY) != offset ||
+                zone.getOffset(millis + MILLIS_PER_DAY) != offset) {
+            return INVALID;
+        }
+
+        // Done
+        return millis;
+    }
+
+    /**
+     * Parses a "yyyy-MM-dd'T'HH:mm:ss" string followed by the "Z" or "+hhmm" zone designator.
+     */
+    static long parseTimestamp(String value) {
+        if (value == null || value.length() < TIMESTAMP_LENGTH + 1) {
+            return INVALID;
+        }
+
+        long days = parseDays(value);
+        if (days == INVALID || value.charAt(DATE_LENGTH) != 'T') {
+            return INVALID;
+        }
+
+        int hour = parseTwoDigits(value, 11);
+        int minute = parseTwoDigits(value, 14);
+        int second = parseTwoDigits(value, 17);
+        if (value.charAt(13) != ':' || value.charAt(16) != ':' || hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+
+        long offset = parseZoneOffset(value, TIMESTAMP_LENGTH);
+        if (offset == INVALID) {
+            return INVALID;
+        }
+
+        // Done
+        return days * MILLIS_PER_DAY + (hour * 3600L + minute * 60L + second) * 1000L - offset;
+    }
+
+    /**
+     * Formats the instant as "yyyy-MM-dd" in the specified time zone.
+     */
+    static String formatDate(long millis, TimeZone zone) {
+        char[] buffer = new char[DATE_LENGTH];
+        return (formatFields(millis + zone.getOffset(millis), buffer, false)) ? new String(buffer) : null;
+    }
+
+    /**
+     * Formats the instant as "yyyy-MM-dd'T'HH:mm:ssZ" in the specified time zone.
+     */
+    static String formatTimestamp(long millis, TimeZone zone) {
+        int offset = zone.getOffset(millis);
+        char[] buffer = new char[TIMESTAMP_LENGTH + 5];
+
+        if (!formatFields(millis + offset, buffer, true)) {
+            return null;
+        }
+
+        int offsetMinutes = offset / 60000;
+        buffer[TIMESTAMP_LENGTH] = (offsetMinutes < 0) ? '-' : '+';
+        offsetMinutes = Math.abs(offsetMinutes);
+        writeTwoDigits(buffer, TIMESTAMP_LENGTH + 1, offsetMinutes / 60);
+        writeTwoDigits(buffer, TIMESTAMP_LENGTH + 3, offsetMinutes % 60);
+
+        // Done
+        return new String(buffer);
+    }
+
+// MARK: - Private Methods
+
+    private static long parseDays(String value) {
+        int century = parseTwoDigits(value, 0);
+        int yearOfCentury = parseTwoDigits(value, 2);
+        if (century > 99 || yearOfCentury > 99) {
+            return INVALID;
+        }
+
+        int year = century * 100 + yearOfCentury;
+        int month = parseTwoDigits(value, 5);
+        int day = parseTwoDigits(value, 8);
+
+        if (year < MIN_YEAR || value.charAt(4) != '-' || value.charAt(7) != '-' ||
+                month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+
+        // Done
+        return daysFromCivil(year, month, day);
+    }
+
+    private static long parseZoneOffset(String value, int start) {
+        int length = value.length() - start;
+        char sign = value.charAt(start);
+
+        if (length == 1 && sign == 'Z') {
+            return 0;
+        }
+
+        // Only the RFC 822 form accepted by the 'Z' pattern, i.e. without a colon
+        if ((sign != '+' && sign != '-') || length != 5) {
+            return INVALID;
+        }
+
+        int hours = parseTwoDigits(value, start + 1);
+        int minutes = parseTwoDigits(value, start + 3);
+
+        if (hours > 23 || minutes > 59) {
+            return INVALID;
+        }
+
+        long offset = (hours * 60L + minutes) * 60000L;
+        return (sign == '-') ? -offset : offset;
+    }
+
+    /**
+     * Returns the two-digit number at the specified position or a value greater than 99 if there is none.
+     */
+    private static int parseTwoDigits(String value, int start) {
+        int hi = value.charAt(start) - '0';
+        int lo = value.charAt(start + 1) - '0';
+
+        if (hi < 0 || hi > 9 || lo < 0 || lo > 9) {
+            return NOT_A_NUMBER;
+        }
+        return hi * 10 + lo;
+    }
+
+    private static boolean formatFields(long localMillis, char[] buffer, boolean withTime) {
+        long days = floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (localMillis - days * MILLIS_PER_DAY);
+
+        // Convert days since the epoch to the civil date
+        // @link http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long z = days + 719468;
+        long era = floorDiv(z, 146097);
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = (mp < 10) ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + ((month <= 2) ? 1 : 0);
+
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return false;
+        }
+
+        writeTwoDigits(buffer, 0, (int) (year / 100));
+        writeTwoDigits(buffer, 2, (int) (year % 100));
+        buffer[4] = '-';
+        writeTwoDigits(buffer, 5, month);
+        buffer[7] = '-';
+        writeTwoDigits(buffer, 8, day);
+
+        if (withTime) {
+            int seconds = millisOfDay / 1000;
+            buffer[10] = 'T';
+            writeTwoDigits(buffer, 11, seconds / 3600);
+            buffer[13] = ':';
+            writeTwoDigits(buffer, 14, (seconds / 60) % 60);
+            buffer[16] = ':';
+            writeTwoDigits(buffer, 17, seconds % 60);
+        }
+
+        // Done
+        return true;
+    }
+
+    private static void writeTwoDigits(char[] buffer, int start, int value) {
+        buffer[start] = (char) ('0' + value / 10);
+        buffer[start + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Returns the number of days since the epoch for the specified date of the proleptic Gregorian calendar.
+     * @link http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = y / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0));
+            return leap ? 29 : 28;
+        }
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long result = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            result--;
+        }
+        return result;
+    }
+
+// MARK: - Constants
+
+    static final long INVALID = Long.MIN_VALUE;
+
+    // GregorianCalendar switches to the Julian calendar before October 15, 1582
+    private static final int MIN_YEAR = 1583;
+    private static final int MAX_YEAR = 9999;
+
+    private static final int NOT_A_NUMBER = 1000;
+
+    private static final int DATE_LENGTH = 10;
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+}
@@ -1,14 +1,12 @@
 package com.roxiemobile.androidcommons.data.mapper.adapter;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import com.roxiemobile.androidcommons.data.model.PostValidatable;
-import com.roxiemobile.androidcommons.diagnostics.CheckException;
 
 import java.io.IOException;
 
@@ -33,13 +31,8 @@ public class PostValidatableObjectTypeAdapterFactory implements TypeAdapterFacto
 
                 if (obj instanceof PostValidatable) {
                     PostValidatable instance = (PostValidatable) obj;
-                    if (instance.isShouldPostValidate()) {
-                        try {
-                            instance.validate();
-                        }
-                        catch (CheckException e) {
-                            throw new JsonSyntaxException(e.getMessage(), e);
-                        }
+                    if (instance.isShouldPostValidate() && !DeferredPostValidation.offer(instance)) {
+                        DeferredPostValidation.validate(instance);
                     }
                 }
                 return obj;
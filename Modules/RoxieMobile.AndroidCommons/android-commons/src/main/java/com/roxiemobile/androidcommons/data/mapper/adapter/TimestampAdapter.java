@@ -24,14 +24,23 @@ public class TimestampAdapter extends TypeAdapter<Timestamp>
 
         // Create object from JSON string
         if (in.peek() != JsonToken.NULL) {
-            try {
-                // Java 6 date is not fully compatible with ISO 8601 and doesn't recognize 'Z' marker as +00:00 timezone.
-                // @link http://docs.oracle.com/javase/6/docs/api/java/text/SimpleDateFormat.html#timezone
-                Date date = FORMATTER.get().parse(in.nextString().replace("Z", "+0000"));
-                timestamp = new Timestamp(date.getTime());
+            String value = in.nextString();
+
+            // Fast path for canonical values, SimpleDateFormat handles the rest
+            long millis = Iso8601Format.parseTimestamp(value);
+            if (millis != Iso8601Format.INVALID) {
+                timestamp = new Timestamp(millis);
             }
-            catch (ParseException e) {
-                throw new JsonSyntaxException(e);
+            else {
+                try {
+                    // Java 6 date is not fully compatible with ISO 8601 and doesn't recognize 'Z' marker as +00:00 timezone.
+                    // @link http://docs.oracle.com/javase/6/docs/api/java/text/SimpleDateFormat.html#timezone
+                    Date date = FORMATTER.get().parse(value.replace("Z", "+0000"));
+                    timestamp = new Timestamp(date.getTime());
+                }
+                catch (ParseException e) {
+                    throw new JsonSyntaxException(e);
+                }
             }
         }
         else {
@@ -44,7 +53,18 @@ public class TimestampAdapter extends TypeAdapter<Timestamp>
 
     @Override
     public void write(JsonWriter writer, Timestamp timestamp) throws IOException {
-        writer.value(timestamp != null ? FORMATTER.get().format(timestamp) : null);
+        String value = null;
+
+        if (timestamp != null) {
+            SimpleDateFormat formatter = FORMATTER.get();
+
+            value = Iso8601Format.formatTimestamp(timestamp.getTime(), formatter.getTimeZone());
+            if (value == null) {
+                value = formatter.format(timestamp);
+            }
+        }
+
+        writer.value(value);
     }
 
 // MARK: - Inner Types
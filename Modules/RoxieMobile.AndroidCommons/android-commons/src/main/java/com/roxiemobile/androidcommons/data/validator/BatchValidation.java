@@ -0,0 +1,121 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.concurrent.ChunkRunner;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Validates a list of values and collects the indices of the valid ones into a {@link BitSet}.
+ * <p>
+ * Large lists can be split into chunks on an executor by the {@link ChunkRunner}. The calling thread
+ * takes part in the work, so the validation completes even if the executor is saturated. Every chunk
+ * covers whole words of the result, so the chunks are collected without any locking.
+ */
+final class BatchValidation
+{
+// MARK: - Construction
+
+    private BatchValidation(List<? extends CharSequence> values, ValueValidator validator) {
+        mValues = values;
+        mValidator = validator;
+
+        mWords = new long[(values.size() + Long.SIZE - 1) / Long.SIZE];
+    }
+
+// MARK: - Methods
+
+    /**
+     * Validates the values sequentially. The result is stored to {@code out}, if any, which is cleared first.
+     */
+    static BitSet validateAll(List<? extends CharSequence> values, BitSet out, ValueValidator validator) {
+        Guard.notNull(values, "values is null");
+
+        BitSet result = prepare(out, values.size());
+        for (int idx = 0, size = values.size(); idx < size; ++idx) {
+            if (validator.isValid(values.get(idx))) {
+                result.set(idx);
+            }
+        }
+
+        // Done
+        return result;
+    }
+
+    /**
+     * Validates the values splitting a large list into chunks on the executor. The list must support
+     * fast random access and must not be modified until the method returns.
+     */
+    static BitSet validateAll(List<? extends CharSequence> values, BitSet out, ExecutorService executor,
+            ValueValidator validator) {
+        Guard.notNull(values, "values is null");
+        Guard.notNull(executor, "executor is null");
+
+        if (values.size() < MIN_PARALLEL_SIZE || CPU_COUNT < 2) {
+            return validateAll(values, out, validator);
+        }
+
+        BatchValidation validation = new BatchValidation(values, validator);
+        ChunkRunner.run(executor, values.size(), CHUNK_SIZE, validation::validateRange);
+
+        // Done
+        return validation.collect(prepare(out, values.size()));
+    }
+
+// MARK: - Private Methods
+
+    private void validateRange(int start, int end) {
+        for (int idx = start; idx < end; ++idx) {
+            if (mValidator.isValid(mValues.get(idx))) {
+                mWords[idx / Long.SIZE] |= 1L << idx;
+            }
+        }
+    }
+
+    private BitSet collect(BitSet result) {
+        for (int idx = 0; idx < mWords.length; ++idx) {
+            long word = mWords[idx];
+            while (word != 0) {
+                result.set(idx * Long.SIZE + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+
+        // Done
+        return result;
+    }
+
+    private static BitSet prepare(BitSet out, int size) {
+        if (out == null) {
+            return new BitSet(size);
+        }
+
+        out.clear();
+        return out;
+    }
+
+// MARK: - Inner Types
+
+    interface ValueValidator
+    {
+        boolean isValid(CharSequence value);
+    }
+
+// MARK: - Constants
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    // A multiple of the word size, so the chunks never share a word
+    private static final int CHUNK_SIZE = Long.SIZE * 32;
+    private static final int MIN_PARALLEL_SIZE = CHUNK_SIZE * 4;
+
+// MARK: - Variables
+
+    private final List<? extends CharSequence> mValues;
+
+    private final ValueValidator mValidator;
+
+    private final long[] mWords;
+}
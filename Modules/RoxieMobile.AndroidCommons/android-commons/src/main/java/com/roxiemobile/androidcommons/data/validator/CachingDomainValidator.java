@@ -0,0 +1,31 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import android.support.annotation.NonNull;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+/**
+ * A {@link DomainValidator} decorator that caches the verdicts of the recently validated domain names.
+ */
+public final class CachingDomainValidator extends CachingValidator
+{
+// MARK: - Construction
+
+    public CachingDomainValidator(@NonNull DomainValidator validator, int maxSize) {
+        super(maxSize);
+        Guard.notNull(validator, "validator is null");
+
+        mValidator = validator;
+    }
+
+// MARK: - Protected Methods
+
+    @Override
+    protected boolean validate(@NonNull String value) {
+        return mValidator.isValid(value);
+    }
+
+// MARK: - Variables
+
+    private final DomainValidator mValidator;
+}
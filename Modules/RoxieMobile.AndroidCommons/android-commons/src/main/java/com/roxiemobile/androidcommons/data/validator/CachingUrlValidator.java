@@ -0,0 +1,31 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import android.support.annotation.NonNull;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+/**
+ * A {@link UrlValidator} decorator that caches the verdicts of the recently validated URLs.
+ */
+public final class CachingUrlValidator extends CachingValidator
+{
+// MARK: - Construction
+
+    public CachingUrlValidator(@NonNull UrlValidator validator, int maxSize) {
+        super(maxSize);
+        Guard.notNull(validator, "validator is null");
+
+        mValidator = validator;
+    }
+
+// MARK: - Protected Methods
+
+    @Override
+    protected boolean validate(@NonNull String value) {
+        return mValidator.isValid(value);
+    }
+
+// MARK: - Variables
+
+    private final UrlValidator mValidator;
+}
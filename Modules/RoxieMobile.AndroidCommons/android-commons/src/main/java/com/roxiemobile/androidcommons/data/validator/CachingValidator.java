@@ -0,0 +1,151 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.roxiemobile.androidcommons.cache.LruCache;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.Arrays;
+
+/**
+ * A validator that keeps the verdicts of the recently validated values in a bounded LRU cache.
+ * <p>
+ * The cache is split into segments selected by the hash code of the value, so concurrent validations
+ * of different values rarely wait for each other. Every segment evicts its own least recently used
+ * verdict, the counters are summed over all the segments.
+ * <p>
+ * The verdicts depend on the top-level domains known to {@link DomainValidator}, which cannot change
+ * once a validator has been obtained. Call {@link #evictAll()} after {@link DomainValidator#clearTLDOverrides()},
+ * e.g. in tests, otherwise the verdicts computed with the old overrides are still returned.
+ */
+public abstract class CachingValidator
+{
+// MARK: - Construction
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected CachingValidator(int maxSize) {
+        Guard.isTrue(maxSize > 0, "maxSize <= 0");
+
+        // Small caches are not split, so every segment holds a meaningful number of verdicts
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENT_COUNT, maxSize / MIN_SEGMENT_SIZE)));
+
+        mSegments = new LruCache[segmentCount];
+        for (int idx = 0; idx < segmentCount; ++idx) {
+            mSegments[idx] = new LruCache<>(maxSize / segmentCount + ((idx < maxSize % segmentCount) ? 1 : 0));
+        }
+        mMaxSize = maxSize;
+    }
+
+// MARK: - Properties
+
+    public final int size() {
+        int size = 0;
+        for (LruCache<String, Boolean> segment : mSegments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public final int maxSize() {
+        return mMaxSize;
+    }
+
+    public final long hitCount() {
+        long hitCount = 0;
+        for (LruCache<String, Boolean> segment : mSegments) {
+            hitCount += segment.hitCount();
+        }
+        return hitCount;
+    }
+
+    public final long missCount() {
+        long missCount = 0;
+        for (LruCache<String, Boolean> segment : mSegments) {
+            missCount += segment.missCount();
+        }
+        return missCount;
+    }
+
+    public final long evictionCount() {
+        long evictionCount = 0;
+        for (LruCache<String, Boolean> segment : mSegments) {
+            evictionCount += segment.evictionCount();
+        }
+        return evictionCount;
+    }
+
+    /**
+     * Returns the share of the validations answered from the cache, or {@code 0} if there were none.
+     */
+    public final double hitRatio() {
+        long hitCount = hitCount();
+        long accesses = hitCount + missCount();
+        return (accesses != 0) ? ((double) hitCount / accesses) : 0;
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns the cached verdict for the value or validates it and caches the result.
+     * A {@code null} value is invalid and is not cached.
+     */
+    public final boolean isValid(@Nullable String value) {
+        if (value == null) {
+            return false;
+        }
+
+        LruCache<String, Boolean> segment = segmentFor(value);
+        Boolean verdict = segment.get(value);
+        if (verdict != null) {
+            return verdict;
+        }
+
+        boolean valid = validate(value);
+        segment.put(value, valid);
+
+        // Done
+        return valid;
+    }
+
+    /**
+     * Removes all cached verdicts. The counters are not reset.
+     */
+    public final void evictAll() {
+        for (LruCache<String, Boolean> segment : mSegments) {
+            segment.evictAll();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + Arrays.toString(mSegments);
+    }
+
+// MARK: - Protected Methods
+
+    /**
+     * Called after a cache miss to validate the value.
+     */
+    protected abstract boolean validate(@NonNull String value);
+
+// MARK: - Private Methods
+
+    private LruCache<String, Boolean> segmentFor(String value) {
+        int hash = value.hashCode();
+
+        // Spread the higher bits to the lower ones used by the mask
+        return mSegments[(hash ^ (hash >>> 16)) & (mSegments.length - 1)];
+    }
+
+// MARK: - Constants
+
+    private static final int MAX_SEGMENT_COUNT = 16;
+    private static final int MIN_SEGMENT_SIZE = 32;
+
+// MARK: - Variables
+
+    private final LruCache<String, Boolean>[] mSegments;
+
+    private final int mMaxSize;
+}
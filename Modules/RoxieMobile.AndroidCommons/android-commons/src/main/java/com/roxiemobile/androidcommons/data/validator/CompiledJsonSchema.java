@@ -0,0 +1,100 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A schema compiled by {@link JsonValidator#compile(JsonObject)} to a reusable validation plan.
+ * <p>
+ * Instances are immutable and can be shared between threads. Validating a document that conforms
+ * to the schema does not look up any schema attributes and does not build any strings. Documents can
+ * also be validated straight from a {@link JsonReader}, without building a tree.
+ */
+public final class CompiledJsonSchema
+{
+// MARK: - Construction
+
+    CompiledJsonSchema(JsonObject schema, SchemaNode root) {
+        mSchema = schema;
+        mRoot = root;
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns the schema this instance was compiled from. The returned object must not be modified.
+     */
+    public JsonObject getSchema() {
+        return mSchema;
+    }
+
+    /**
+     * Validates the element against the compiled schema.
+     */
+    public void validate(JsonElement element) throws JsonValidationException {
+        Guard.notNull(element, "element is null");
+        mRoot.validate(JsonPath.root(), element);
+    }
+
+    /**
+     * Validates the element splitting large arrays, and objects with many properties, into chunks
+     * which are validated in parallel on the executor, e.g. {@code ParallelWorkerThreadExecutor}.
+     * Only the outermost large container on each path is split, the nested ones are validated sequentially.
+     * If several values are invalid the one the sequential validation would stop at is reported.
+     */
+    public void validate(JsonElement element, ExecutorService executor) throws JsonValidationException {
+        Guard.notNull(element, "element is null");
+        Guard.notNull(executor, "executor is null");
+        mRoot.validate(JsonPath.root(), element, executor);
+    }
+
+    /**
+     * Validates the element collecting all violations into the report instead of stopping at the first one.
+     * The report is not cleared by this method.
+     */
+    public void validate(JsonElement element, ValidationReport report) {
+        Guard.notNull(element, "element is null");
+        Guard.notNull(report, "report is null");
+        mRoot.validate(JsonPath.root(), element, report);
+    }
+
+    /**
+     * Validates the next value of the reader without building a tree of it. Validation stops at the first
+     * violation found in the document order, in which case the reader is left in the middle of the value.
+     */
+    public void validate(JsonReader reader) throws JsonValidationException, IOException {
+        Guard.notNull(reader, "reader is null");
+        mRoot.validate(JsonPath.root(), reader);
+    }
+
+    /**
+     * Validates the JSON document without building a tree of it. The document is read as leniently
+     * as {@code JsonParser} does. The reader is not closed by this method.
+     */
+    public void validate(Reader reader) throws JsonValidationException, IOException {
+        Guard.notNull(reader, "reader is null");
+
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        validate(jsonReader);
+
+        // Same check as in JsonParser#parse(Reader)
+        if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+            throw new MalformedJsonException("Did not consume the entire document.");
+        }
+    }
+
+// MARK: - Variables
+
+    private final JsonObject mSchema;
+
+    private final SchemaNode mRoot;
+}
@@ -19,7 +19,10 @@ package com.roxiemobile.androidcommons.data.validator;
 import java.io.Serializable;
 import java.net.IDN;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p><b>Domain name</b> validation routines.</p>
@@ -69,23 +72,25 @@ public class DomainValidator implements Serializable {
 
     private static final long serialVersionUID = -4407125112880174009L;
 
-    // Regular expression strings for hostnames (derived from RFC2396 and RFC 1123)
+    // Syntax of hostnames (derived from RFC2396 and RFC 1123), checked by parseDomainName
 
     // RFC2396: domainlabel   = alphanum | alphanum *( alphanum | "-" ) alphanum
     // Max 63 characters
-    private static final String DOMAIN_LABEL_REGEX = "\\p{Alnum}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
+    private static final int MAX_LABEL_LENGTH = 63;
 
     // RFC2396 toplabel = alpha | alpha *( alphanum | "-" ) alphanum
     // Max 63 characters
-    private static final String TOP_LABEL_REGEX = "\\p{Alpha}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
 
     // RFC2396 hostname = *( domainlabel "." ) toplabel [ "." ]
-    // Note that the regex currently requires both a domain label and a top level label, whereas
-    // the RFC does not. This is because the regex is used to detect if a TLD is present.
-    // If the match fails, input is checked against DOMAIN_LABEL_REGEX (hostnameRegex)
+    // Note that the parser currently requires both a domain label and a top level label, whereas
+    // the RFC does not. This is because the parser is used to detect if a TLD is present.
+    // A single domain label without a dot is a local hostname.
     // RFC1123 sec 2.1 allows hostnames to start with a digit
-    private static final String DOMAIN_NAME_REGEX =
-            "^(?:" + DOMAIN_LABEL_REGEX + "\\.)+" + "(" + TOP_LABEL_REGEX + ")\\.?$";
+
+    // Results of parseDomainName besides the index of the top label
+    private static final int INVALID_DOMAIN = -1;
+    private static final int LOCAL_HOSTNAME = -2;
+    private static final int NON_ASCII_DOMAIN = -3;
 
     private final boolean allowLocal;
 
@@ -101,25 +106,13 @@ public class DomainValidator implements Serializable {
      */
     private static final DomainValidator DOMAIN_VALIDATOR_WITH_LOCAL = new DomainValidator(true);
 
-    /**
-     * RegexValidator for matching domains.
-     */
-    private final RegexValidator domainRegex =
-            new RegexValidator(DOMAIN_NAME_REGEX);
-    /**
-     * RegexValidator for matching a local hostname
-     */
-    // RFC1123 sec 2.1 allows hostnames to start with a digit
-    private final RegexValidator hostnameRegex =
-            new RegexValidator(DOMAIN_LABEL_REGEX);
-
     /**
      * Returns the singleton instance of this validator. It
      *  will not consider local addresses as valid.
      * @return the singleton instance of this validator
      */
-    public static synchronized DomainValidator getInstance() {
-        inUse = true;
+    public static DomainValidator getInstance() {
+        markInUse();
         return DOMAIN_VALIDATOR;
     }
 
@@ -129,8 +122,8 @@ public class DomainValidator implements Serializable {
      * @param allowLocal Should local addresses be considered valid?
      * @return the singleton instance of this validator
      */
-    public static synchronized DomainValidator getInstance(boolean allowLocal) {
-        inUse = true;
+    public static DomainValidator getInstance(boolean allowLocal) {
+        markInUse();
         if(allowLocal) {
             return DOMAIN_VALIDATOR_WITH_LOCAL;
         }
@@ -153,19 +146,28 @@ public class DomainValidator implements Serializable {
         if (domain == null) {
             return false;
         }
-        domain = unicodeToASCII(domain);
+        // ASCII domains are checked in a single pass without any copies,
+        // only the labels with non-ASCII characters are converted
+        CharSequence ascii = domain;
+        int topLabel = parseDomainName(ascii);
+        if (topLabel == NON_ASCII_DOMAIN) {
+            ascii = labelsToASCII(domain);
+            if (ascii == null) {
+                return false;
+            }
+            topLabel = parseDomainName(ascii);
+        }
         // hosts must be equally reachable via punycode and Unicode;
         // Unicode is never shorter than punycode, so check punycode
-        // if domain did not convert, then it will be caught by ASCII
-        // checks in the regexes below
-        if (domain.length() > MAX_DOMAIN_LENGTH) {
+        if (ascii.length() > MAX_DOMAIN_LENGTH) {
             return false;
         }
-        String[] groups = domainRegex.match(domain);
-        if (groups != null && groups.length > 0) {
-            return isValidTld(groups[0]);
+        if (topLabel >= 0) {
+            // The top label is looked up in place
+            int end = (ascii.charAt(ascii.length() - 1) == '.') ? ascii.length() - 1 : ascii.length();
+            return (overrides.get().table.getCategories(ascii, topLabel, end) & tldCategories()) != 0;
         }
-        return allowLocal && hostnameRegex.isValid(domain);
+        return allowLocal && topLabel == LOCAL_HOSTNAME;
     }
 
     // package protected for unit test access
@@ -174,17 +176,125 @@ public class DomainValidator implements Serializable {
         if (domain == null) {
             return false;
         }
-        domain = unicodeToASCII(domain);
+        CharSequence ascii = domain;
+        int topLabel = parseDomainName(ascii);
+        if (topLabel == NON_ASCII_DOMAIN) {
+            ascii = labelsToASCII(domain);
+            if (ascii == null) {
+                return false;
+            }
+            topLabel = parseDomainName(ascii);
+        }
         // hosts must be equally reachable via punycode and Unicode;
         // Unicode is never shorter than punycode, so check punycode
-        // if domain did not convert, then it will be caught by ASCII
-        // checks in the regexes below
-        if (domain.length() > MAX_DOMAIN_LENGTH) {
+        if (ascii.length() > MAX_DOMAIN_LENGTH) {
             return false;
         }
-        String[] groups = domainRegex.match(domain);
-        return (groups != null && groups.length > 0)
-                || hostnameRegex.isValid(domain);
+        return topLabel >= 0 || topLabel == LOCAL_HOSTNAME;
+    }
+
+    /**
+     * Checks the syntax of an ASCII domain name in a single pass.
+     * Returns the index of the top label, LOCAL_HOSTNAME for a single label without a dot,
+     * INVALID_DOMAIN, or NON_ASCII_DOMAIN if the domain has to be converted to punycode first.
+     */
+    private static int parseDomainName(CharSequence domain) {
+        final int length = domain.length();
+        int labelCount = 0;
+        int labelStart = 0;
+        int lastLabelStart = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = domain.charAt(i);
+            if (ch == '.') {
+                if (!isValidLabel(domain, labelStart, i)) {
+                    return INVALID_DOMAIN;
+                }
+                labelCount++;
+                lastLabelStart = labelStart;
+                labelStart = i + 1;
+            } else if (ch > 0x7F) { // CHECKSTYLE IGNORE MagicNumber
+                // The position of the hyphens is checked after the conversion
+                return NON_ASCII_DOMAIN;
+            } else if (!isAlnum(ch) && ch != '-') {
+                return INVALID_DOMAIN;
+            }
+        }
+
+        if (labelStart < length) {
+            if (!isValidLabel(domain, labelStart, length)) {
+                return INVALID_DOMAIN;
+            }
+            if (labelCount == 0) {
+                return LOCAL_HOSTNAME;
+            }
+            lastLabelStart = labelStart;
+        } else if (labelCount < 2) {
+            // Either empty or a single label followed by a dot
+            return INVALID_DOMAIN;
+        }
+        return isAlpha(domain.charAt(lastLabelStart)) ? lastLabelStart : INVALID_DOMAIN;
+    }
+
+    /**
+     * Checks the length and the first and the last characters of a label,
+     * the other characters are checked by the caller.
+     */
+    private static boolean isValidLabel(CharSequence domain, int start, int end) {
+        return end > start && end - start <= MAX_LABEL_LENGTH
+                && isAlnum(domain.charAt(start)) && isAlnum(domain.charAt(end - 1));
+    }
+
+    /**
+     * Converts the labels with non-ASCII characters to punycode the same way
+     * {@link IDN#toASCII(String)} converts the whole domain, the ASCII labels
+     * are copied as is. All the dots recognized by IDN separate the labels
+     * and a trailing dot is kept.
+     * Returns <code>null</code> if a label cannot be converted.
+     */
+    private static CharSequence labelsToASCII(String domain) {
+        final int length = domain.length();
+        StringBuilder ascii = new StringBuilder(length);
+        int labelStart = 0;
+        boolean labelIsASCII = true;
+        for (int i = 0; i <= length; i++) {
+            char ch = (i < length) ? domain.charAt(i) : '.';
+            if (!isDot(ch)) {
+                labelIsASCII &= ch <= 0x7F; // CHECKSTYLE IGNORE MagicNumber
+                continue;
+            }
+            if (labelIsASCII) {
+                ascii.append(domain, labelStart, i);
+            } else {
+                try {
+                    ascii.append(IDN.toASCII(domain.substring(labelStart, i)));
+                } catch (IllegalArgumentException e) { // input is not valid
+                    return null;
+                }
+            }
+            if (i < length) {
+                ascii.append('.');
+            }
+            labelStart = i + 1;
+            labelIsASCII = true;
+        }
+        return ascii;
+    }
+
+    // RFC3490 3.1. 1)
+    //            Whenever dots are used as label separators, the following
+    //            characters MUST be recognized as dots: U+002E (full stop), U+3002
+    //            (ideographic full stop), U+FF0E (fullwidth full stop), U+FF61
+    //            (halfwidth ideographic full stop).
+    private static boolean isDot(char ch) {
+        return ch == '\u002E' || ch == '\u3002' || ch == '\uFF0E' || ch == '\uFF61';
+    }
+
+    private static boolean isAlpha(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    private static boolean isAlnum(char ch) {
+        return isAlpha(ch) || (ch >= '0' && ch <= '9');
     }
 
     /**
@@ -195,13 +305,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a TLD
      */
     public boolean isValidTld(String tld) {
-        tld = unicodeToASCII(tld);
-        if(allowLocal && isValidLocalTld(tld)) {
-            return true;
-        }
-        return isValidInfrastructureTld(tld)
-                || isValidGenericTld(tld)
-                || isValidCountryCodeTld(tld);
+        return (getTldCategories(tld) & tldCategories()) != 0;
     }
 
     /**
@@ -212,8 +316,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is an infrastructure TLD
      */
     public boolean isValidInfrastructureTld(String iTld) {
-        final String key = chompLeadingDot(unicodeToASCII(iTld).toLowerCase(Locale.ENGLISH));
-        return arrayContains(INFRASTRUCTURE_TLDS, key);
+        return (getTldCategories(iTld) & TldTable.INFRASTRUCTURE) != 0;
     }
 
     /**
@@ -224,9 +327,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a generic TLD
      */
     public boolean isValidGenericTld(String gTld) {
-        final String key = chompLeadingDot(unicodeToASCII(gTld).toLowerCase(Locale.ENGLISH));
-        return (arrayContains(GENERIC_TLDS, key) || arrayContains(genericTLDsPlus, key))
-                && !arrayContains(genericTLDsMinus, key);
+        return (getTldCategories(gTld) & TldTable.GENERIC) != 0;
     }
 
     /**
@@ -237,9 +338,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a country code TLD
      */
     public boolean isValidCountryCodeTld(String ccTld) {
-        final String key = chompLeadingDot(unicodeToASCII(ccTld).toLowerCase(Locale.ENGLISH));
-        return (arrayContains(COUNTRY_CODE_TLDS, key) || arrayContains(countryCodeTLDsPlus, key))
-                && !arrayContains(countryCodeTLDsMinus, key);
+        return (getTldCategories(ccTld) & TldTable.COUNTRY_CODE) != 0;
     }
 
     /**
@@ -250,15 +349,24 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is an local TLD
      */
     public boolean isValidLocalTld(String lTld) {
-        final String key = chompLeadingDot(unicodeToASCII(lTld).toLowerCase(Locale.ENGLISH));
-        return arrayContains(LOCAL_TLDS, key);
+        return (getTldCategories(lTld) & TldTable.LOCAL) != 0;
     }
 
-    private String chompLeadingDot(String str) {
-        if (str.startsWith(".")) {
-            return str.substring(1);
-        }
-        return str;
+    /**
+     * Returns the categories of the TLD this validator accepts.
+     */
+    private int tldCategories() {
+        int categories = TldTable.INFRASTRUCTURE | TldTable.GENERIC | TldTable.COUNTRY_CODE;
+        return allowLocal ? (categories | TldTable.LOCAL) : categories;
+    }
+
+    /**
+     * Returns the categories of the TLD, ignoring a leading dot and the case.
+     */
+    private static int getTldCategories(String tld) {
+        tld = unicodeToASCII(tld);
+        int start = tld.startsWith(".") ? 1 : 0;
+        return overrides.get().table.getCategories(tld, start, tld.length());
     }
 
     // ---------------------------------------------
@@ -1834,29 +1942,12 @@ public class DomainValidator implements Serializable {
     // The PLUS arrays are valid keys, the MINUS arrays are invalid keys
 
     /*
-     * This field is used to detect whether the getInstance has been called.
-     * After this, the method updateTLDOverride is not allowed to be called.
-     * This field does not need to be volatile since it is only accessed from
-     * synchronized methods.
+     * The override arrays together with the table of all TLDs built from them.
+     * The snapshot is immutable and replaced as a whole using compare-and-set,
+     * so neither getInstance nor the lookups need any locking.
      */
-    private static boolean inUse = false;
-
-    /*
-     * These arrays are mutable, but they don't need to be volatile.
-     * They can only be updated by the updateTLDOverride method, and any readers must get an instance
-     * using the getInstance methods which are all (now) synchronised.
-     */
-    // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
-    private static volatile String[] countryCodeTLDsPlus = EMPTY_STRING_ARRAY;
-
-    // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
-    private static volatile String[] genericTLDsPlus = EMPTY_STRING_ARRAY;
-
-    // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
-    private static volatile String[] countryCodeTLDsMinus = EMPTY_STRING_ARRAY;
-
-    // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
-    private static volatile String[] genericTLDsMinus = EMPTY_STRING_ARRAY;
+    private static final AtomicReference<Overrides> overrides =
+            new AtomicReference<Overrides>(new Overrides());
 
     /**
      * enum used by {@link DomainValidator#updateTLDOverride(ArrayType, String[])}
@@ -1885,12 +1976,8 @@ public class DomainValidator implements Serializable {
     };
 
     // For use by unit test code only
-    static synchronized void clearTLDOverrides() {
-        inUse = false;
-        countryCodeTLDsPlus = EMPTY_STRING_ARRAY;
-        countryCodeTLDsMinus = EMPTY_STRING_ARRAY;
-        genericTLDsPlus = EMPTY_STRING_ARRAY;
-        genericTLDsMinus = EMPTY_STRING_ARRAY;
+    static void clearTLDOverrides() {
+        overrides.set(new Overrides());
     }
     /**
      * Update one of the TLD override arrays.
@@ -1915,36 +2002,58 @@ public class DomainValidator implements Serializable {
      * @throws IllegalArgumentException if one of the read-only tables is requested
      * @since 1.5.0
      */
-    public static synchronized void updateTLDOverride(ArrayType table, String [] tlds) {
-        if (inUse) {
-            throw new IllegalStateException("Can only invoke this method before calling getInstance");
-        }
+    public static void updateTLDOverride(ArrayType table, String [] tlds) {
         String [] copy = new String[tlds.length];
         // Comparisons are always done with lower-case entries
         for (int i = 0; i < tlds.length; i++) {
             copy[i] = tlds[i].toLowerCase(Locale.ENGLISH);
         }
         Arrays.sort(copy);
-        switch(table) {
-        case COUNTRY_CODE_MINUS:
-            countryCodeTLDsMinus = copy;
-            break;
-        case COUNTRY_CODE_PLUS:
-            countryCodeTLDsPlus = copy;
-            break;
-        case GENERIC_MINUS:
-            genericTLDsMinus = copy;
-            break;
-        case GENERIC_PLUS:
-            genericTLDsPlus = copy;
-            break;
-        case COUNTRY_CODE_RO:
-        case GENERIC_RO:
-        case INFRASTRUCTURE_RO:
-        case LOCAL_RO:
-            throw new IllegalArgumentException("Cannot update the table: " + table);
-        default:
-            throw new IllegalArgumentException("Unexpected enum value: " + table);
+        // Retry if another thread has replaced the snapshot in the meantime
+        while (true) {
+            Overrides current = overrides.get();
+            if (current.inUse) {
+                throw new IllegalStateException("Can only invoke this method before calling getInstance");
+            }
+            if (overrides.compareAndSet(current, current.update(table, copy))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marks the overrides as used, so they can no longer be updated.
+     * Only the first call replaces the snapshot, the later ones just read it.
+     */
+    private static void markInUse() {
+        Overrides current = overrides.get();
+        while (!current.inUse && !overrides.compareAndSet(current, current.markInUse())) {
+            current = overrides.get();
+        }
+    }
+
+    /**
+     * Builds the table of all TLDs with the overrides applied.
+     */
+    private static TldTable buildTldTable(String[] genericTLDsPlus, String[] genericTLDsMinus,
+            String[] countryCodeTLDsPlus, String[] countryCodeTLDsMinus) {
+        Map<String, Integer> categories = new HashMap<>();
+        addCategory(categories, INFRASTRUCTURE_TLDS, TldTable.INFRASTRUCTURE, true);
+        addCategory(categories, GENERIC_TLDS, TldTable.GENERIC, true);
+        addCategory(categories, genericTLDsPlus, TldTable.GENERIC, true);
+        addCategory(categories, genericTLDsMinus, TldTable.GENERIC, false);
+        addCategory(categories, COUNTRY_CODE_TLDS, TldTable.COUNTRY_CODE, true);
+        addCategory(categories, countryCodeTLDsPlus, TldTable.COUNTRY_CODE, true);
+        addCategory(categories, countryCodeTLDsMinus, TldTable.COUNTRY_CODE, false);
+        addCategory(categories, LOCAL_TLDS, TldTable.LOCAL, true);
+        return new TldTable(categories);
+    }
+
+    private static void addCategory(Map<String, Integer> categories, String[] tlds, int category, boolean add) {
+        for (String tld : tlds) {
+            Integer current = categories.get(tld);
+            int value = (current != null) ? current : 0;
+            categories.put(tld, add ? (value | category) : (value & ~category));
         }
     }
 
@@ -1956,19 +2065,20 @@ public class DomainValidator implements Serializable {
      * @since 1.5.1
      */
     public static String [] getTLDEntries(ArrayType table) {
+        final Overrides current = overrides.get();
         final String array[];
         switch(table) {
         case COUNTRY_CODE_MINUS:
-            array = countryCodeTLDsMinus;
+            array = current.countryCodeTLDsMinus;
             break;
         case COUNTRY_CODE_PLUS:
-            array = countryCodeTLDsPlus;
+            array = current.countryCodeTLDsPlus;
             break;
         case GENERIC_MINUS:
-            array = genericTLDsMinus;
+            array = current.genericTLDsMinus;
             break;
         case GENERIC_PLUS:
-            array = genericTLDsPlus;
+            array = current.genericTLDsPlus;
             break;
         case GENERIC_RO:
             array = GENERIC_TLDS;
@@ -2037,6 +2147,72 @@ public class DomainValidator implements Serializable {
         private static final boolean IDN_TOASCII_PRESERVES_TRAILING_DOTS = keepsTrailingDot();
     }
 
+    /*
+     * Immutable snapshot of the override arrays.
+     * The inUse flag is set once getInstance has been called, after this
+     * the method updateTLDOverride is not allowed to be called.
+     */
+    private static final class Overrides {
+        // WARNING: these arrays MUST be sorted, otherwise they cannot be searched reliably using binary search
+        final String[] countryCodeTLDsPlus;
+        final String[] genericTLDsPlus;
+        final String[] countryCodeTLDsMinus;
+        final String[] genericTLDsMinus;
+
+        final boolean inUse;
+        final TldTable table;
+
+        Overrides() {
+            this(EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY, false,
+                    buildTldTable(EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY, EMPTY_STRING_ARRAY));
+        }
+
+        private Overrides(String[] countryCodeTLDsPlus, String[] genericTLDsPlus,
+                String[] countryCodeTLDsMinus, String[] genericTLDsMinus, boolean inUse, TldTable table) {
+            this.countryCodeTLDsPlus = countryCodeTLDsPlus;
+            this.genericTLDsPlus = genericTLDsPlus;
+            this.countryCodeTLDsMinus = countryCodeTLDsMinus;
+            this.genericTLDsMinus = genericTLDsMinus;
+            this.inUse = inUse;
+            this.table = table;
+        }
+
+        Overrides markInUse() {
+            return new Overrides(countryCodeTLDsPlus, genericTLDsPlus,
+                    countryCodeTLDsMinus, genericTLDsMinus, true, table);
+        }
+
+        Overrides update(ArrayType type, String[] tlds) {
+            String[] ccPlus = countryCodeTLDsPlus;
+            String[] gPlus = genericTLDsPlus;
+            String[] ccMinus = countryCodeTLDsMinus;
+            String[] gMinus = genericTLDsMinus;
+            switch(type) {
+            case COUNTRY_CODE_MINUS:
+                ccMinus = tlds;
+                break;
+            case COUNTRY_CODE_PLUS:
+                ccPlus = tlds;
+                break;
+            case GENERIC_MINUS:
+                gMinus = tlds;
+                break;
+            case GENERIC_PLUS:
+                gPlus = tlds;
+                break;
+            case COUNTRY_CODE_RO:
+            case GENERIC_RO:
+            case INFRASTRUCTURE_RO:
+            case LOCAL_RO:
+                throw new IllegalArgumentException("Cannot update the table: " + type);
+            default:
+                throw new IllegalArgumentException("Unexpected enum value: " + type);
+            }
+            return new Overrides(ccPlus, gPlus, ccMinus, gMinus, inUse,
+                    buildTldTable(gPlus, gMinus, ccPlus, ccMinus));
+        }
+    }
+
     /*
      * Check if input contains only ASCII
      * Treats null as all ASCII
@@ -2052,15 +2228,4 @@ public class DomainValidator implements Serializable {
         }
         return true;
     }
-
-    /**
-     * Check if a sorted array contains the specified key
-     *
-     * @param sortedArray the array to search
-     * @param key the key to find
-     * @return {@code true} if the array contains the key
-     */
-    private static boolean arrayContains(String[] sortedArray, String key) {
-        return Arrays.binarySearch(sortedArray, key) >= 0;
-    }
 }
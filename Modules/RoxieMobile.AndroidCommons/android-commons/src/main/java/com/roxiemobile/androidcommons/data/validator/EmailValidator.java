@@ -1,5 +1,10 @@
 package com.roxiemobile.androidcommons.data.validator;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
 // Commonly used regular expression patterns
 // @link http://grepcode.com/file/repository.grepcode.com/java/ext/com.google.android/android/5.1.1_r1/android/util/Patterns.java#Patterns.0EMAIL_ADDRESS
 
@@ -21,8 +26,102 @@ public class EmailValidator
 
 // MARK: - Methods
 
+    /**
+     * Checks if the value matches {@link #EMAIL_ADDRESS_REGEX}. The value is scanned once by a state machine
+     * over character classes, without backtracking and allocations.
+     */
     public boolean isValid(CharSequence value) {
-        return EMAIL_REGEX_VALIDATOR.isValid(value);
+        if (value == null) {
+            return false;
+        }
+
+        int length = value.length();
+        int pos = 0;
+
+        // Local part
+        while (pos < length && isOfClass(value.charAt(pos), LOCAL_PART)) {
+            pos++;
+        }
+        if (pos == 0 || pos > MAX_LOCAL_PART_LENGTH || pos == length || value.charAt(pos) != '@') {
+            return false;
+        }
+        pos++;
+
+        // Domain labels, a label can't contain a dot so each one ends at the next dot
+        int maxLabelLength = MAX_FIRST_LABEL_LENGTH;
+        while (true) {
+            if (pos == length || !isOfClass(value.charAt(pos), LABEL_START)) {
+                return false;
+            }
+
+            int start = pos++;
+            while (pos < length && isOfClass(value.charAt(pos), LABEL)) {
+                pos++;
+            }
+            if (pos - start > maxLabelLength) {
+                return false;
+            }
+
+            if (pos == length) {
+                return true;
+            }
+            if (value.charAt(pos) != '.') {
+                return false;
+            }
+
+            pos++;
+            maxLabelLength = MAX_LABEL_LENGTH;
+        }
+    }
+
+    /**
+     * Validates the addresses of the array in a single call and returns the indices of the valid ones.
+     * The result is stored to {@code out}, if any, which is cleared first.
+     */
+    public BitSet validateAll(CharSequence[] values, BitSet out) {
+        return validateAll(Arrays.asList(values), out);
+    }
+
+    /**
+     * Validates the addresses of the list in a single call and returns the indices of the valid ones.
+     * The result is stored to {@code out}, if any, which is cleared first.
+     */
+    public BitSet validateAll(List<? extends CharSequence> values, BitSet out) {
+        return BatchValidation.validateAll(values, out, this::isValid);
+    }
+
+    /**
+     * Validates the addresses of the list splitting a large list into chunks on the executor,
+     * e.g. {@code ParallelWorkerThreadExecutor}. The list must support fast random access.
+     */
+    public BitSet validateAll(List<? extends CharSequence> values, BitSet out, ExecutorService executor) {
+        return BatchValidation.validateAll(values, out, executor, this::isValid);
+    }
+
+// MARK: - Private Methods
+
+    private static boolean isOfClass(char ch, int charClass) {
+        return (ch < CHAR_CLASSES.length) && (CHAR_CLASSES[ch] & charClass) != 0;
+    }
+
+    private static byte[] newCharClasses() {
+        byte[] classes = new byte[128];
+        for (char ch = 0; ch < classes.length; ++ch) {
+            boolean isAlphanumeric = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9');
+
+            if (isAlphanumeric || ch == '.' || ch == '_' || ch == '%' || ch == '-' || ch == '+') {
+                classes[ch] |= LOCAL_PART;
+            }
+            if (isAlphanumeric) {
+                classes[ch] |= LABEL_START;
+            }
+            if (isAlphanumeric || ch == '-') {
+                classes[ch] |= LABEL;
+            }
+        }
+
+        // Done
+        return classes;
     }
 
 // MARK: - Constants
@@ -38,9 +137,14 @@ public class EmailValidator
                 + "(\\.[a-zA-Z0-9][a-zA-Z0-9\\-]{0,25})*"
             + "$";
 
-    /**
-     * RegexValidator for matching Emails.
-     */
-    private static final RegexValidator EMAIL_REGEX_VALIDATOR =
-            new RegexValidator(EMAIL_ADDRESS_REGEX);
+    // Limits and character classes of EMAIL_ADDRESS_REGEX
+    private static final int MAX_LOCAL_PART_LENGTH = 256;
+    private static final int MAX_FIRST_LABEL_LENGTH = 65;
+    private static final int MAX_LABEL_LENGTH = 26;
+
+    private static final int LOCAL_PART = 1;
+    private static final int LABEL_START = 1 << 1;
+    private static final int LABEL = 1 << 2;
+
+    private static final byte[] CHAR_CLASSES = newCharClasses();
 }
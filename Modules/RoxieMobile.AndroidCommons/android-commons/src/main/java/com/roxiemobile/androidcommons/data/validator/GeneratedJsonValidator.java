@@ -0,0 +1,201 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Invalid;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Type;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.WrongType;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The base class of the validators generated by {@link JsonValidatorGenerator}.
+ * <p>
+ * A generated validator checks the same rules and throws the same exceptions as {@link JsonValidator},
+ * but the schema is turned into straight-line code, so there is no schema to look up at runtime.
+ * Instances are stateless and can be shared between threads.
+ */
+public abstract class GeneratedJsonValidator
+{
+// MARK: - Methods
+
+    /**
+     * Validates the element against the schema the validator was generated from.
+     */
+    public final void validate(JsonElement element) throws JsonValidationException {
+        Guard.notNull(element, "element is null");
+        validate(new Path(JsonPath.root()), element);
+    }
+
+// MARK: - Protected Methods
+
+    protected abstract void validate(Path path, JsonElement element) throws JsonValidationException;
+
+    /**
+     * Returns the type bit of the element, e.g. {@link #STRING}, if it is one of the specified types.
+     */
+    protected static int typeOf(Path path, JsonElement element, int types) throws JsonValidationException {
+        Type type = JsonValidator.getType(element);
+        int bit = 1 << type.ordinal();
+
+        if ((types & bit) == 0) {
+            Set<Type> typeSet = EnumSet.noneOf(Type.class);
+            for (Type value : Type.values()) {
+                if ((types & (1 << value.ordinal())) != 0) {
+                    typeSet.add(value);
+                }
+            }
+            throw WrongType.generate(path.toString(), typeSet, type);
+        }
+
+        // Done
+        return bit;
+    }
+
+    protected static void checkMinLength(Path path, String str, int minLength) throws JsonValidationException {
+        if (str.length() < minLength) {
+            throw new Invalid("Invalid: String '" + path + "' is too short.  The string needs to be more than " + minLength + " characters");
+        }
+    }
+
+    protected static void checkMaxLength(Path path, String str, int maxLength) throws JsonValidationException {
+        if (str.length() > maxLength) {
+            throw new Invalid("Invalid: String '" + path + "' is too long.  The string needs to be less than " + maxLength + " characters");
+        }
+    }
+
+    protected static void checkPattern(Path path, String str, Pattern pattern) throws JsonValidationException {
+        if (!pattern.matcher(str).matches()) {
+            throw new Invalid("Invalid: String '" + path + "' does not match pattern '" + pattern.pattern() + "'");
+        }
+    }
+
+    protected static void checkMinimum(Path path, String number, Bound minimum) throws JsonValidationException {
+        if (minimum.mBound.isGreaterThan(number)) {
+            throw new Invalid("Invalid: Property '" + path + "' has a value of '" + new BigDecimal(number) +
+                    "' which is less than the minimum of '" + minimum + "'.");
+        }
+    }
+
+    protected static void checkMaximum(Path path, String number, Bound maximum) throws JsonValidationException {
+        if (maximum.mBound.isLessThan(number)) {
+            throw new Invalid("Invalid: Property '" + path + "' has a value of '" + new BigDecimal(number) +
+                    "' which is greater than the maximum of '" + maximum + "'.");
+        }
+    }
+
+    protected static void checkEnum(Path path, JsonElement element, JsonElement[] values) throws JsonValidationException {
+        for (JsonElement value : values) {
+            if (element.equals(value)) {
+                return;
+            }
+        }
+
+        throw new Invalid("Invalid: Property '" + path + "' is not one of the enum values.");
+    }
+
+    protected static JsonValidationException missingProperty(Path path, String name) {
+        return new Invalid("Invalid: Required property '" + path.toString(name) + "' not found");
+    }
+
+    protected static JsonValidationException additionalProperty(Path path, String name) {
+        return new Invalid("Invalid: Found additional property '" + path.toString(name) + "'");
+    }
+
+    protected static JsonValidationException additionalItem(Path path) {
+        return new Invalid("Invalid: Found additional item '" + path + "'");
+    }
+
+    /**
+     * Parses the enum values of a schema from their JSON representation.
+     */
+    protected static JsonElement[] enumValues(String json) {
+        JsonArray array = new JsonParser().parse(json).getAsJsonArray();
+
+        JsonElement[] values = new JsonElement[array.size()];
+        for (int idx = 0; idx < values.length; ++idx) {
+            values[idx] = array.get(idx);
+        }
+
+        // Done
+        return values;
+    }
+
+    /**
+     * Parses a {@code minimum} or {@code maximum} of a schema once, so the validated numbers are compared
+     * with it without parsing the bound again.
+     */
+    protected static Bound bound(String value) {
+        return new Bound(new JsonNumber.Bound(new BigDecimal(value)));
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * The path to the element being validated. Segments are rendered to a string only when an error is reported.
+     */
+    protected static final class Path
+    {
+        private Path(JsonPath path) {
+            mPath = path;
+        }
+
+        public void pushName(String name) {
+            mPath.pushName(name);
+        }
+
+        /**
+         * Pushes the array index as it is shown in messages, i.e. starting from 1.
+         */
+        public void pushIndex(int index) {
+            mPath.pushIndex(index);
+        }
+
+        public void pop() {
+            mPath.pop();
+        }
+
+        public String toString(String name) {
+            return mPath.toString(name);
+        }
+
+        @Override
+        public String toString() {
+            return mPath.toString();
+        }
+
+        private final JsonPath mPath;
+    }
+
+    /**
+     * A {@code minimum} or {@code maximum} of the schema, see {@link #bound(String)}.
+     */
+    protected static final class Bound
+    {
+        private Bound(JsonNumber.Bound bound) {
+            mBound = bound;
+        }
+
+        @Override
+        public String toString() {
+            return mBound.toString();
+        }
+
+        private final JsonNumber.Bound mBound;
+    }
+
+// MARK: - Constants
+
+    protected static final int STRING = 1 << Type.STRING.ordinal();
+    protected static final int NUMBER = 1 << Type.NUMBER.ordinal();
+    protected static final int INTEGER = 1 << Type.INTEGER.ordinal();
+    protected static final int BOOLEAN = 1 << Type.BOOLEAN.ordinal();
+    protected static final int OBJECT = 1 << Type.OBJECT.ordinal();
+    protected static final int ARRAY = 1 << Type.ARRAY.ordinal();
+    protected static final int NULL = 1 << Type.NULL.ordinal();
+}
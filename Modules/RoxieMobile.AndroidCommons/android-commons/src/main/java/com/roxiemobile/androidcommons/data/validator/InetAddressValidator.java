@@ -17,9 +17,10 @@
 package com.roxiemobile.androidcommons.data.validator;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * <p><b>InetAddress</b> validation and conversion routines (<code>java.net.InetAddress</code>).</p>
@@ -37,14 +38,12 @@ public class InetAddressValidator implements Serializable {
 
     private static final int IPV4_MAX_OCTET_VALUE = 255;
 
-    private static final int MAX_UNSIGNED_SHORT = 0xffff;
-
-    private static final int BASE_16 = 16;
+    private static final int IPV4_MAX_DIGITS_PER_OCTET = 3;
 
     private static final long serialVersionUID = -919201640201914789L;
 
-    private static final String IPV4_REGEX =
-            "^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})$";
+    // Number of octets (separated by .) in an IPV4 address
+    private static final int IPV4_OCTETS = 4;
 
     // Max number of hex groups (separated by :) in an IPV6 address
     private static final int IPV6_MAX_HEX_GROUPS = 8;
@@ -57,9 +56,6 @@ public class InetAddressValidator implements Serializable {
      */
     private static final InetAddressValidator VALIDATOR = new InetAddressValidator();
 
-    /** IPv4 RegexValidator */
-    private final RegexValidator ipv4Validator = new RegexValidator(IPV4_REGEX);
-
     /**
      * Returns the singleton instance of this validator.
      * @return the singleton instance of this validator
@@ -77,113 +73,231 @@ public class InetAddressValidator implements Serializable {
         return isValidInet4Address(inetAddress) || isValidInet6Address(inetAddress);
     }
 
+    /**
+     * Validates the addresses of the array in a single call.
+     * @param values the values to validate, <code>null</code> elements are invalid
+     * @param out the set to store the result to after clearing it, or <code>null</code> to create a new one
+     * @return the set of the indices of the valid values
+     */
+    public BitSet validateAll(CharSequence[] values, BitSet out) {
+        return validateAll(Arrays.asList(values), out);
+    }
+
+    /**
+     * Validates the addresses of the list in a single call.
+     * @param values the values to validate, <code>null</code> elements are invalid
+     * @param out the set to store the result to after clearing it, or <code>null</code> to create a new one
+     * @return the set of the indices of the valid values
+     */
+    public BitSet validateAll(List<? extends CharSequence> values, BitSet out) {
+        return BatchValidation.validateAll(values, out, this::isValidAddress);
+    }
+
+    /**
+     * Validates the addresses of the list splitting a large list into chunks on the executor,
+     * e.g. <code>ParallelWorkerThreadExecutor</code>. The list must support fast random access.
+     * @param values the values to validate, <code>null</code> elements are invalid
+     * @param out the set to store the result to after clearing it, or <code>null</code> to create a new one
+     * @param executor the executor to validate the chunks on
+     * @return the set of the indices of the valid values
+     */
+    public BitSet validateAll(List<? extends CharSequence> values, BitSet out, ExecutorService executor) {
+        return BatchValidation.validateAll(values, out, executor, this::isValidAddress);
+    }
+
     /**
      * Validates an IPv4 address. Returns true if valid.
      * @param inet4Address the IPv4 address to validate
      * @return true if the argument contains a valid IPv4 address
      */
     public boolean isValidInet4Address(String inet4Address) {
-        // verify that address conforms to generic IPv4 format
-        String[] groups = ipv4Validator.match(inet4Address);
-
-        if (groups == null) {
-            return false;
-        }
+        return inet4Address != null && parseInet4Address(inet4Address) >= 0;
+    }
 
-        // verify that address subgroups are legal
-        for (String ipSegment : groups) {
-            if (ipSegment == null || ipSegment.length() == 0) {
-                return false;
-            }
+    /**
+     * Validates an IPv6 address. Returns true if valid.
+     * @param inet6Address the IPv6 address to validate
+     * @return true if the argument contains a valid IPv6 address
+     *
+     * @since 1.4.1
+     */
+    public boolean isValidInet6Address(String inet6Address) {
+        return inet6Address != null && parseInet6Address(inet6Address, null);
+    }
 
-            int iIpSegment = 0;
+    /**
+     * Parses an IPv4 address in the dotted decimal form.
+     * Octets with leading zeroes are not allowed.
+     * @param inet4Address the IPv4 address to parse, not null
+     * @return the address as an unsigned 32 bit value, i.e. <code>(int) result</code>
+     * is the address in the network byte order, or -1 if the argument is not a valid IPv4 address
+     */
+    public long parseInet4Address(CharSequence inet4Address) {
+        return parseInet4Address(inet4Address, 0, inet4Address.length());
+    }
 
-            try {
-                iIpSegment = Integer.parseInt(ipSegment);
-            } catch(NumberFormatException e) {
-                return false;
+    /**
+     * Parses an IPv4 address in the range <code>[start, end)</code> of the value.
+     * @param value the value containing the IPv4 address, not null
+     * @param start the index of the first character of the address
+     * @param end the index after the last character of the address
+     * @return the address as an unsigned 32 bit value, or -1 if the range is not a valid IPv4 address
+     * @see #parseInet4Address(CharSequence)
+     */
+    public long parseInet4Address(CharSequence value, int start, int end) {
+        long address = 0;
+        int pos = start;
+        for (int octet = 0; octet < IPV4_OCTETS; octet++) {
+            if (octet > 0) {
+                if (pos == end || value.charAt(pos) != '.') {
+                    return -1;
+                }
+                pos++;
             }
 
-            if (iIpSegment > IPV4_MAX_OCTET_VALUE) {
-                return false;
+            int octetStart = pos;
+            int octetValue = 0;
+            while (pos < end && pos - octetStart < IPV4_MAX_DIGITS_PER_OCTET && isDigit(value.charAt(pos))) {
+                octetValue = octetValue * 10 + (value.charAt(pos) - '0'); // CHECKSTYLE IGNORE MagicNumber
+                pos++;
             }
-
-            if (ipSegment.length() > 1 && ipSegment.startsWith("0")) {
-                return false;
+            if (pos == octetStart || octetValue > IPV4_MAX_OCTET_VALUE) {
+                return -1;
             }
-
+            if (pos - octetStart > 1 && value.charAt(octetStart) == '0') {
+                return -1;
+            }
+            address = (address << Byte.SIZE) | octetValue;
         }
-
-        return true;
+        return (pos == end) ? address : -1;
     }
 
     /**
-     * Validates an IPv6 address. Returns true if valid.
-     * @param inet6Address the IPv6 address to validate
+     * Parses an IPv6 address, which may end with an embedded IPv4 address.
+     * Groups are made of 1 to 4 ASCII hex digits, zone indices are not allowed.
+     * @param inet6Address the IPv6 address to parse, not null
+     * @param address the array to store the upper and the lower 64 bits of the address to,
+     * or <code>null</code> to validate the address only
      * @return true if the argument contains a valid IPv6 address
-     *
-     * @since 1.4.1
      */
-    public boolean isValidInet6Address(String inet6Address) {
-        boolean containsCompressedZeroes = inet6Address.contains("::");
-        if (containsCompressedZeroes && (inet6Address.indexOf("::") != inet6Address.lastIndexOf("::"))) {
-            return false;
-        }
-        if ((inet6Address.startsWith(":") && !inet6Address.startsWith("::"))
-                || (inet6Address.endsWith(":") && !inet6Address.endsWith("::"))) {
-            return false;
-        }
-        String[] octets = inet6Address.split(":");
-        if (containsCompressedZeroes) {
-            List<String> octetList = new ArrayList<String>(Arrays.asList(octets));
-            if (inet6Address.endsWith("::")) {
-                // String.split() drops ending empty segments
-                octetList.add("");
-            } else if (inet6Address.startsWith("::") && !octetList.isEmpty()) {
-                octetList.remove(0);
+    public boolean parseInet6Address(CharSequence inet6Address, long[] address) {
+        return parseInet6Address(inet6Address, 0, inet6Address.length(), address);
+    }
+
+    /**
+     * Parses an IPv6 address in the range <code>[start, end)</code> of the value.
+     * @param value the value containing the IPv6 address, not null
+     * @param start the index of the first character of the address
+     * @param end the index after the last character of the address
+     * @param address the array to store the upper and the lower 64 bits of the address to,
+     * or <code>null</code> to validate the address only
+     * @return true if the range contains a valid IPv6 address
+     * @see #parseInet6Address(CharSequence, long[])
+     */
+    public boolean parseInet6Address(CharSequence value, int start, int end, long[] address) {
+        // The groups before the compressed zeroes are placed in the address at once, the ones
+        // after them are shifted in from the right, since their position is not known yet
+        long high = 0;
+        long low = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int groupCount = 0;
+        int compressedAt = -1;
+
+        int pos = start;
+        if (pos < end && value.charAt(pos) == ':') {
+            if (pos + 1 == end || value.charAt(pos + 1) != ':') {
+                return false;
             }
-            octets = octetList.toArray(new String[octetList.size()]);
+            compressedAt = 0;
+            pos += 2;
         }
-        if (octets.length > IPV6_MAX_HEX_GROUPS) {
-            return false;
-        }
-        int validOctets = 0;
-        int emptyOctets = 0; // consecutive empty chunks
-        for (int index = 0; index < octets.length; index++) {
-            String octet = octets[index];
-            if (octet.length() == 0) {
-                emptyOctets++;
-                if (emptyOctets > 1) {
+
+        while (pos < end) {
+            int groupStart = pos;
+            long groupBits = 0;
+            int groupSize = 1;
+            int digit;
+            while (pos < end && (digit = hexDigit(value.charAt(pos))) >= 0) {
+                if (pos - groupStart == IPV6_MAX_HEX_DIGITS_PER_GROUP) {
                     return false;
                 }
-            } else {
-                emptyOctets = 0;
+                groupBits = (groupBits << 4) | digit; // CHECKSTYLE IGNORE MagicNumber
+                pos++;
+            }
+
+            if (pos < end && value.charAt(pos) == '.') {
                 // Is last chunk an IPv4 address?
-                if (index == octets.length - 1 && octet.contains(".")) {
-                    if (!isValidInet4Address(octet)) {
-                        return false;
-                    }
-                    validOctets += 2;
-                    continue;
-                }
-                if (octet.length() > IPV6_MAX_HEX_DIGITS_PER_GROUP) {
+                groupBits = parseInet4Address(value, groupStart, end);
+                if (groupBits < 0) {
                     return false;
                 }
-                int octetInt = 0;
-                try {
-                    octetInt = Integer.parseInt(octet, BASE_16);
-                } catch (NumberFormatException e) {
-                    return false;
+                groupSize = 2;
+                pos = end;
+            } else if (pos == groupStart) {
+                return false;
+            }
+
+            if (groupCount + groupSize > IPV6_MAX_HEX_GROUPS) {
+                return false;
+            }
+            for (int shift = (groupSize - 1) * Short.SIZE; shift >= 0; shift -= Short.SIZE) {
+                long group = (groupBits >>> shift) & 0xFFFF;
+                if (compressedAt >= 0) {
+                    tailHigh = (tailHigh << Short.SIZE) | (tailLow >>> (Long.SIZE - Short.SIZE));
+                    tailLow = (tailLow << Short.SIZE) | group;
+                } else if (groupCount < IPV6_MAX_HEX_GROUPS / 2) {
+                    high |= group << ((IPV6_MAX_HEX_GROUPS / 2 - 1 - groupCount) * Short.SIZE);
+                } else {
+                    low |= group << ((IPV6_MAX_HEX_GROUPS - 1 - groupCount) * Short.SIZE);
                 }
-                if (octetInt < 0 || octetInt > MAX_UNSIGNED_SHORT) {
-                    return false;
+                groupCount++;
+            }
+
+            if (pos < end) {
+                if (value.charAt(pos) != ':' || ++pos == end) {
+                    return false; // an unexpected character or a trailing single colon
+                }
+                if (value.charAt(pos) == ':') {
+                    if (compressedAt >= 0) {
+                        return false; // the zeroes can be compressed once only
+                    }
+                    compressedAt = groupCount;
+                    pos++;
                 }
             }
-            validOctets++;
         }
-        if (validOctets > IPV6_MAX_HEX_GROUPS || (validOctets < IPV6_MAX_HEX_GROUPS && !containsCompressedZeroes)) {
+
+        // The compressed zeroes stand for one group at least
+        if ((compressedAt >= 0) ? (groupCount >= IPV6_MAX_HEX_GROUPS) : (groupCount < IPV6_MAX_HEX_GROUPS)) {
             return false;
         }
+
+        if (address != null) {
+            address[0] = high | tailHigh;
+            address[1] = low | tailLow;
+        }
         return true;
     }
+
+    private boolean isValidAddress(CharSequence value) {
+        return value != null && (parseInet4Address(value) >= 0 || parseInet6Address(value, null));
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static int hexDigit(char ch) {
+        if (ch >= '0' && ch <= '9') {
+            return ch - '0';
+        }
+        if (ch >= 'a' && ch <= 'f') {
+            return ch - 'a' + 10; // CHECKSTYLE IGNORE MagicNumber
+        }
+        if (ch >= 'A' && ch <= 'F') {
+            return ch - 'A' + 10; // CHECKSTYLE IGNORE MagicNumber
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,305 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Type;
+
+import java.math.BigDecimal;
+
+/**
+ * Classifies and compares numbers by their JSON text, e.g. the text of a lazily parsed Gson number.
+ * <p>
+ * The results are the same as of the {@link BigDecimal} of the text. Integers which fit a {@code long}
+ * and decimals with up to 15 significant digits are handled without a {@code BigDecimal}, the other
+ * numbers fall back to it.
+ */
+final class JsonNumber
+{
+// MARK: - Construction
+
+    private JsonNumber() {
+        // Do nothing
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns {@link Type#NUMBER} if the number has a fraction the same way as {@link BigDecimal#scale()} does,
+     * {@link Type#INTEGER} otherwise.
+     */
+    static Type getType(String text) {
+        Type type = scanType(text);
+        if (type != null) {
+            return type;
+        }
+
+        // Done
+        return (new BigDecimal(text).scale() > 0) ? Type.NUMBER : Type.INTEGER;
+    }
+
+    /**
+     * Compares the number with the bound, both specified by their text.
+     */
+    static int compare(String number, String bound) {
+        int result = compare(number, toLong(bound), toDouble(bound));
+        if (result != UNKNOWN) {
+            return result;
+        }
+
+        // Done
+        return new BigDecimal(number).compareTo(new BigDecimal(bound));
+    }
+
+// MARK: - Private Methods
+
+    /**
+     * Returns the type of a plain decimal number, {@code null} otherwise.
+     */
+    private static Type scanType(String text) {
+        int length = text.length();
+        int pos = (length > 0 && text.charAt(0) == '-') ? 1 : 0;
+
+        int start = pos;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        if (pos == start) {
+            return null;
+        }
+
+        long scale = 0;
+        if (pos < length && text.charAt(pos) == '.') {
+            start = ++pos;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            scale = pos - start;
+        }
+
+        if (pos < length && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            pos = skipSign(text, ++pos);
+
+            start = pos;
+            long exponent = 0;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                exponent = exponent * 10 + (text.charAt(pos++) - '0');
+            }
+            if (pos == start || pos - start > MAX_EXPONENT_DIGITS) {
+                return null;
+            }
+            scale = (text.charAt(start - 1) == '-') ? (scale + exponent) : (scale - exponent);
+        }
+
+        if (pos != length) {
+            return null;
+        }
+
+        // Done
+        return (scale > 0) ? Type.NUMBER : Type.INTEGER;
+    }
+
+    /**
+     * Compares the number with the bound converted by {@link #toLong} and {@link #toDouble},
+     * returns {@link #UNKNOWN} if the number does not fit either of them.
+     */
+    private static int compare(String number, long longBound, double doubleBound) {
+        if (longBound != NOT_A_LONG) {
+            long value = toLong(number);
+            if (value != NOT_A_LONG) {
+                return (value < longBound) ? -1 : ((value > longBound) ? 1 : 0);
+            }
+        }
+
+        if (!Double.isNaN(doubleBound)) {
+            double value = toDouble(number);
+            if (!Double.isNaN(value)) {
+                // Unlike Double.compare() negative zero is equal to zero
+                return (value < doubleBound) ? -1 : ((value > doubleBound) ? 1 : 0);
+            }
+        }
+
+        // Done
+        return UNKNOWN;
+    }
+
+    /**
+     * Returns the value of an integer literal with up to 18 digits, {@link #NOT_A_LONG} otherwise.
+     */
+    private static long toLong(String text) {
+        int length = text.length();
+        int pos = (length > 0 && text.charAt(0) == '-') ? 1 : 0;
+
+        if (length == pos || length - pos > MAX_LONG_DIGITS) {
+            return NOT_A_LONG;
+        }
+
+        long value = 0;
+        for (int idx = pos; idx < length; ++idx) {
+            char ch = text.charAt(idx);
+            if (!isDigit(ch)) {
+                return NOT_A_LONG;
+            }
+            value = value * 10 + (ch - '0');
+        }
+
+        // Done
+        return (pos > 0) ? -value : value;
+    }
+
+    /**
+     * Returns the value of a decimal number with up to 15 significant digits and a small exponent,
+     * {@code NaN} otherwise. Such a decimal is converted exactly by a single rounded operation, and
+     * different decimals of this kind never convert to the same double, so comparing the doubles
+     * gives the same result as comparing the decimals.
+     */
+    private static double toDouble(String text) {
+        int length = text.length();
+        int pos = (length > 0 && text.charAt(0) == '-') ? 1 : 0;
+        boolean negative = (pos > 0);
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean hasDigits = false;
+        boolean hasPoint = false;
+
+        for (; pos < length; ++pos) {
+            char ch = text.charAt(pos);
+            if (ch == '.' && !hasPoint) {
+                hasPoint = true;
+                continue;
+            }
+            if (!isDigit(ch)) {
+                break;
+            }
+
+            hasDigits = true;
+            if (hasPoint) {
+                scale++;
+            }
+
+            // Leading zeros are not significant
+            if (mantissa != 0 || ch != '0') {
+                if (++digits > MAX_DOUBLE_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (ch - '0');
+            }
+        }
+
+        if (!hasDigits) {
+            return Double.NaN;
+        }
+
+        if (pos < length && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            pos = skipSign(text, ++pos);
+
+            int start = pos;
+            int exponent = 0;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                exponent = exponent * 10 + (text.charAt(pos++) - '0');
+                if (exponent > MAX_DOUBLE_EXPONENT * 2) {
+                    return Double.NaN;
+                }
+            }
+            if (pos == start) {
+                return Double.NaN;
+            }
+            scale = (text.charAt(start - 1) == '-') ? (scale + exponent) : (scale - exponent);
+        }
+
+        if (pos != length) {
+            return Double.NaN;
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        }
+        else if (scale > MAX_DOUBLE_EXPONENT || scale < -MAX_DOUBLE_EXPONENT) {
+            return Double.NaN;
+        }
+        else {
+            value = (scale >= 0) ? (mantissa / POWERS_OF_TEN[scale]) : (mantissa * POWERS_OF_TEN[-scale]);
+        }
+
+        // Done
+        return negative ? -value : value;
+    }
+
+    private static int skipSign(String text, int pos) {
+        return (pos < text.length() && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) ? pos + 1 : pos;
+    }
+
+    private static boolean isDigit(char ch) {
+        return (ch >= '0' && ch <= '9');
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * A {@code minimum} or {@code maximum} of a compiled schema.
+     */
+    static final class Bound
+    {
+        Bound(BigDecimal value) {
+            String text = value.toPlainString();
+
+            mValue = value;
+            mLong = toLong(text);
+            mDouble = toDouble(text);
+        }
+
+        BigDecimal getValue() {
+            return mValue;
+        }
+
+        /**
+         * Returns {@code true} if the number specified by its text is less than the bound.
+         */
+        boolean isGreaterThan(String number) {
+            return compareWith(number) < 0;
+        }
+
+        /**
+         * Returns {@code true} if the number specified by its text is greater than the bound.
+         */
+        boolean isLessThan(String number) {
+            return compareWith(number) > 0;
+        }
+
+        private int compareWith(String number) {
+            int result = compare(number, mLong, mDouble);
+            if (result != UNKNOWN) {
+                return result;
+            }
+
+            // Done
+            return new BigDecimal(number).compareTo(mValue);
+        }
+
+        @Override
+        public String toString() {
+            return mValue.toString();
+        }
+
+        private final BigDecimal mValue;
+
+        private final long mLong;
+
+        private final double mDouble;
+    }
+
+// MARK: - Constants
+
+    private static final long NOT_A_LONG = Long.MIN_VALUE;
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_DOUBLE_DIGITS = 15;
+    private static final int MAX_DOUBLE_EXPONENT = 22;
+    private static final int MAX_EXPONENT_DIGITS = 9;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+}
@@ -0,0 +1,109 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import java.util.Arrays;
+
+/**
+ * A mutable path to the element being validated, e.g. {@code $['vehicles'][2]['model']}.
+ * <p>
+ * Segments are pushed and popped while walking the document and the path is rendered to a string
+ * only when a validation error has to be reported.
+ */
+final class JsonPath
+{
+// MARK: - Methods
+
+    /**
+     * Returns the path instance of the current thread reset to the root.
+     */
+    static JsonPath root() {
+        JsonPath path = sCurrentPath.get();
+        if (path == null) {
+            sCurrentPath.set(path = new JsonPath());
+        }
+        path.mDepth = 0;
+        return path;
+    }
+
+    /**
+     * Returns a detached copy of the path, e.g. to continue it on another thread.
+     */
+    JsonPath copy() {
+        JsonPath path = new JsonPath();
+        path.mNames = Arrays.copyOf(mNames, Math.max(mNames.length, INITIAL_CAPACITY));
+        path.mIndices = Arrays.copyOf(mIndices, path.mNames.length);
+        path.mDepth = mDepth;
+        return path;
+    }
+
+    void pushName(String name) {
+        ensureCapacity();
+        mNames[mDepth] = name;
+        mIndices[mDepth++] = NO_INDEX;
+    }
+
+    /**
+     * Pushes the array index as it is shown in messages, i.e. starting from 1.
+     */
+    void pushIndex(int index) {
+        ensureCapacity();
+        mNames[mDepth] = null;
+        mIndices[mDepth++] = index;
+    }
+
+    void pop() {
+        mNames[--mDepth] = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(ROOT);
+        for (int idx = 0; idx < mDepth; ++idx) {
+            appendSegment(builder, mNames[idx], mIndices[idx]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the string representation of the path extended by the specified name.
+     */
+    String toString(String name) {
+        StringBuilder builder = new StringBuilder(toString());
+        appendSegment(builder, name, NO_INDEX);
+        return builder.toString();
+    }
+
+// MARK: - Private Methods
+
+    private void ensureCapacity() {
+        if (mDepth == mNames.length) {
+            mNames = Arrays.copyOf(mNames, mDepth * 2);
+            mIndices = Arrays.copyOf(mIndices, mDepth * 2);
+        }
+    }
+
+    private static void appendSegment(StringBuilder builder, String name, int index) {
+        if (name != null) {
+            builder.append("['").append(name).append("']");
+        }
+        else {
+            builder.append('[').append(index).append(']');
+        }
+    }
+
+// MARK: - Constants
+
+    static final String ROOT = "$";
+
+    private static final int NO_INDEX = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+// MARK: - Variables
+
+    private static final ThreadLocal<JsonPath> sCurrentPath = new ThreadLocal<>();
+
+    private String[] mNames = new String[INITIAL_CAPACITY];
+
+    private int[] mIndices = new int[INITIAL_CAPACITY];
+
+    private int mDepth;
+}
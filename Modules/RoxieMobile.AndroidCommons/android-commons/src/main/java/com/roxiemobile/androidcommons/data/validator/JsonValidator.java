@@ -1,17 +1,25 @@
 package com.roxiemobile.androidcommons.data.validator;
 
+import android.support.annotation.NonNull;
+
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.roxiemobile.androidcommons.cache.LruCache;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
 import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.androidcommons.logging.Logger.LogLevel;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-
-import static java.util.Collections.singleton;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class JsonValidator
 {
@@ -27,35 +35,45 @@ public class JsonValidator
         return mSchema;
     }
 
+    /**
+     * Compiles the schema once to a validation plan which can be reused for any number of documents.
+     * Unlike {@link #validate(JsonObject, JsonElement)} all schema errors are reported here, even
+     * the ones in parts of the schema a particular document would never reach.
+     */
+    public static CompiledJsonSchema compile(JsonObject schema) throws JsonValidationException {
+        Guard.notNull(schema, "schema is null");
+        return new CompiledJsonSchema(schema, SchemaNode.compile(schema));
+    }
+
+
+    /**
+     * Returns the cache of the compiled "pattern" attributes shared by all schemas.
+     * Its counters show how well the cache works for the schemas in use.
+     */
+    public static LruCache<String, Pattern> getPatternCache() {
+        return sPatternCache;
+    }
+
+    static Pattern getPattern(String pattern) throws PatternSyntaxException {
+        return sPatternCache.get(pattern);
+    }
 
     static Set<Type> anyTypeSet()
     {
-        HashSet<Type> hashSet = new HashSet<>();
-        hashSet.add(Type.STRING);
-        hashSet.add(Type.NUMBER);
-        hashSet.add(Type.INTEGER);
-        hashSet.add(Type.BOOLEAN);
-        hashSet.add(Type.OBJECT);
-        hashSet.add(Type.ARRAY);
-        hashSet.add(Type.NULL);
-        return hashSet;
+        return ANY_TYPES;
     }
 
-    static Set<Type> getSimpleType(String path, String type)
+    static Set<Type> getSimpleType(Object path, String type)
     {
-        for (Type t : Type.values())
+        for (Type t : TYPES)
         {
             if (t.getTypeString().equals(type))
             {
                 if (t != Type.NUMBER) {
-                    return singleton(t);
+                    return SIMPLE_TYPES.get(t);
                 }
-                else
-                {
-                    HashSet<Type> set = new HashSet<Type>();
-                    set.add(Type.NUMBER);
-                    set.add(Type.INTEGER);
-                    return set;
+                else {
+                    return NUMBER_TYPES;
                 }
             }
         }
@@ -69,7 +87,7 @@ public class JsonValidator
         return anyTypeSet();
     }
 
-    static Set<Type> getTypeSet(String path, JsonObject schema) throws JsonValidationException
+    static Set<Type> getTypeSet(Object path, JsonObject schema) throws JsonValidationException
     {
         JsonElement typeElement = schema.get(TYPE);
 
@@ -102,13 +120,13 @@ public class JsonValidator
                 }
 
                 // Unknown type.  Accept all.
-                Logger.w(TAG, "Schema: Unknown type at '" + path + "'");
+                logUnknownType(path);
                 return anyTypeSet();
             }
         }
 
         // Don't know what this is, assume any.
-        Logger.w(TAG, "Schema: Unknown type at '" + path + "'");
+        logUnknownType(path);
         return anyTypeSet();
     }
 
@@ -130,15 +148,9 @@ public class JsonValidator
         if (primitive.isBoolean()) {
             return Type.BOOLEAN;
         }
-        if (primitive.isNumber())
-        {
-            BigDecimal decimal = primitive.getAsBigDecimal();
-            int scale = decimal.scale();
-            if (scale > 0) {
-                return Type.NUMBER;
-            } else {
-                return Type.INTEGER;
-            }
+        if (primitive.isNumber()) {
+            // The text of a parsed number is classified without a BigDecimal
+            return JsonNumber.getType(primitive.getAsString());
         }
 
         // Don't know.  Punt and call it a string.
@@ -146,26 +158,22 @@ public class JsonValidator
         return Type.STRING;
     }
 
-    static void validateObject(String path, JsonObject schema, JsonObject obj) throws JsonValidationException
+    static void validateObject(JsonPath path, JsonObject schema, JsonObject obj) throws JsonValidationException
     {
-        Set<String> propertiesSeen = new HashSet<>();
-
         JsonObject properties = schema.getAsJsonObject(PROPERTIES);
 
         if (properties == null) {
             return;
         }
 
-        Set<Map.Entry<String, JsonElement>> propertySet = properties.entrySet();
-        for (Map.Entry<String, JsonElement> property : propertySet)
+        int propertiesFound = 0;
+        for (Map.Entry<String, JsonElement> property : properties.entrySet())
         {
             String name = property.getKey();
-            String newPath = path + "['" + name + "']";
             JsonElement element = property.getValue();
-            propertiesSeen.add(name);
 
             if ( ! element.isJsonObject()) {
-                throw new JsonValidationException("Bad Schema: property definition not an object at '" + newPath + "'");
+                throw new JsonValidationException("Bad Schema: property definition not an object at '" + path.toString(name) + "'");
             }
 
             JsonObject definition = element.getAsJsonObject();
@@ -176,22 +184,31 @@ public class JsonValidator
             {
                 JsonPrimitive optional = definition.getAsJsonPrimitive(OPTIONAL);
                 if (optional == null) {
-                    throw new JsonValidationException("Invalid: Required property '" + newPath + "' not found");
+                    throw new Invalid("Invalid: Required property '" + path.toString(name) + "' not found");
                 }
 
                 if ( ! optional.getAsBoolean()) {
-                    throw new JsonValidationException("Invalid: Required property '" + newPath + "' not found");
+                    throw new Invalid("Invalid: Required property '" + path.toString(name) + "' not found");
                 }
             }
-            else {
-                validate(newPath, definition, newTarget);
+            else
+            {
+                path.pushName(name);
+                validate(path, definition, newTarget);
+                path.pop();
+                propertiesFound++;
             }
         }
 
+        // All properties of the object are described by the schema
+        if (obj.size() == propertiesFound) {
+            return;
+        }
+
         JsonElement additionalProperties = schema.get(ADDITIONAL_PROPERTIES);
         JsonObject additionalSchema = null;
         if (additionalProperties == null) {
-            additionalSchema = new JsonObject();
+            additionalSchema = EMPTY_SCHEMA;
         }
         else
         {
@@ -200,28 +217,23 @@ public class JsonValidator
             }
         }
 
-        if (additionalSchema == null) {
-            Logger.d(TAG, "No additional schema for '" + path + "'");
-        } else {
-            Logger.d(TAG, "Additional schema for '" + path + "': " + additionalSchema.toString());
-        }
-
-        Set<Map.Entry<String, JsonElement>> objectProperties = obj.entrySet();
-        for (Map.Entry<String, JsonElement> property : objectProperties)
+        for (Map.Entry<String, JsonElement> property : obj.entrySet())
         {
             String name = property.getKey();
-            String newPath = path + "['" + name + "']";
-            if ( ! propertiesSeen.contains(name))
+            if ( ! properties.has(name))
             {
                 if (additionalSchema == null) {
-                    throw new JsonValidationException("Invalid: Found additional property '" + newPath + "'");
+                    throw new Invalid("Invalid: Found additional property '" + path.toString(name) + "'");
                 }
-                validate(newPath, additionalSchema, property.getValue());
+
+                path.pushName(name);
+                validate(path, additionalSchema, property.getValue());
+                path.pop();
             }
         }
     }
 
-    static Integer getInt(String path, String attributeName, JsonObject schema) throws JsonValidationException
+    static Integer getInt(Object path, String attributeName, JsonObject schema) throws JsonValidationException
     {
         JsonElement attributeElement = schema.get(attributeName);
 
@@ -240,7 +252,7 @@ public class JsonValidator
         return attributePrimitive.getAsInt();
     }
 
-    static String getString(String path, String attributeName, JsonObject schema) throws JsonValidationException
+    static String getString(Object path, String attributeName, JsonObject schema) throws JsonValidationException
     {
         JsonElement attributeElement = schema.get(attributeName);
 
@@ -260,7 +272,13 @@ public class JsonValidator
         return attributePrimitive.getAsString();
     }
 
-    static BigDecimal getBigDecimal(String path, String attributeName, JsonObject schema) throws JsonValidationException
+    static BigDecimal getBigDecimal(Object path, String attributeName, JsonObject schema) throws JsonValidationException
+    {
+        JsonPrimitive attributePrimitive = getNumber(path, attributeName, schema);
+        return (attributePrimitive != null) ? attributePrimitive.getAsBigDecimal() : null;
+    }
+
+    static JsonPrimitive getNumber(Object path, String attributeName, JsonObject schema) throws JsonValidationException
     {
         JsonElement attributeElement = schema.get(attributeName);
 
@@ -276,39 +294,62 @@ public class JsonValidator
             throw new JsonValidationException("Bad Schema: '" + attributeName + "' attribute is not a number at '" + path + "'");
         }
 
-        return attributePrimitive.getAsBigDecimal();
+        return attributePrimitive;
     }
 
-    static void validateString(String path, JsonObject schema, String str) throws JsonValidationException
+    static void validateString(JsonPath path, JsonObject schema, String str) throws JsonValidationException
     {
         Integer minLength = getInt(path, MIN_LENGTH, schema);
         Integer maxLength = getInt(path, MAX_LENGTH, schema);
 
         if ((minLength != null) && (str.length() < minLength)) {
-            throw new JsonValidationException("Invalid: String '" + path + "' is too short.  The string needs to be more than " + minLength + " characters");
+            throw new Invalid("Invalid: String '" + path + "' is too short.  The string needs to be more than " + minLength + " characters");
         }
 
         if ((maxLength != null) && (str.length() > maxLength)) {
-            throw new JsonValidationException("Invalid: String '" + path + "' is too long.  The string needs to be less than " + maxLength + " characters");
+            throw new Invalid("Invalid: String '" + path + "' is too long.  The string needs to be less than " + maxLength + " characters");
         }
 
         String pattern = getString(path, PATTERN, schema);
-        if ((pattern != null) && (!str.matches(pattern))) {
-            throw new JsonValidationException("Invalid: String '" + path + "' does not match pattern '" + pattern + "'");
+        if ((pattern != null) && (!sPatternCache.get(pattern).matcher(str).matches())) {
+            throw new Invalid("Invalid: String '" + path + "' does not match pattern '" + pattern + "'");
         }
     }
 
-    static void validateTuple(String path, JsonArray tupleSchema, JsonObject additionalSchema, JsonArray array)
-            throws JsonValidationException {
-        // Do nothing
+    static void validateTuple(JsonPath path, JsonArray tupleSchema, JsonObject additionalSchema, JsonArray array)
+            throws JsonValidationException
+    {
+        for (int i = 0, size = array.size(); i < size; ++i)
+        {
+            path.pushIndex(i + 1);
+
+            if (i < tupleSchema.size())
+            {
+                JsonElement itemSchema = tupleSchema.get(i);
+                if ( ! itemSchema.isJsonObject()) {
+                    throw new JsonValidationException("Bad Schema: tuple item definition not an object at '" + path + "'");
+                }
+                validate(path, itemSchema.getAsJsonObject(), array.get(i));
+            }
+            else
+            {
+                // Items past the tuple are described by the additional schema
+                if (additionalSchema == null) {
+                    throw new Invalid("Invalid: Found additional item '" + path + "'");
+                }
+                validate(path, additionalSchema, array.get(i));
+            }
+
+            path.pop();
+        }
     }
 
-    static void validateArray(String path, JsonObject schema, JsonArray array) throws JsonValidationException
+    static void validateArray(JsonPath path, JsonObject schema, JsonArray array) throws JsonValidationException
     {
         JsonElement additionalProperties = schema.get(ADDITIONAL_PROPERTIES);
         JsonObject additionalSchema = null;
         if (additionalProperties == null) {
-            additionalSchema = new JsonObject();
+            additionalSchema = EMPTY_SCHEMA;
         }
         else
         {
@@ -335,19 +376,18 @@ public class JsonValidator
         else {
             // Bogus items parameter, assume everything is valid.
             Logger.e(TAG, "Bad Schema: '" + path + "' items parameter is invalid.");
-            itemsSchema = new JsonObject();
+            itemsSchema = EMPTY_SCHEMA;
         }
 
-        int i = 0;
-        for (JsonElement element : array)
+        for (int i = 0, size = array.size(); i < size; ++i)
         {
-            ++i;
-            String curPath = path + "[" + i + "]";
-            validate(curPath, itemsSchema, element);
+            path.pushIndex(i + 1);
+            validate(path, itemsSchema, array.get(i));
+            path.pop();
         }
     }
 
-    static void validateEnum(String path, JsonObject schema, JsonElement element) throws JsonValidationException
+    static void validateEnum(JsonPath path, JsonObject schema, JsonElement element) throws JsonValidationException
     {
         JsonElement enumElement = schema.get(ENUM);
         if (enumElement == null) {
@@ -368,39 +408,45 @@ public class JsonValidator
             }
         }
 
-        throw new JsonValidationException("Invalid: Property '" + path + "' is not one of the enum values.");
+        throw new Invalid("Invalid: Property '" + path + "' is not one of the enum values.");
     }
 
-    static void validateNumber(String path, JsonObject schema, BigDecimal number) throws JsonValidationException
+    static void validateNumber(JsonPath path, JsonObject schema, JsonElement element) throws JsonValidationException
     {
-        BigDecimal minimum = getBigDecimal(path, MINIMUM, schema);
+        if ( ! schema.has(MINIMUM) && ! schema.has(MAXIMUM)) {
+            return;
+        }
+
+        String number = element.getAsString();
+
+        JsonPrimitive minimum = getNumber(path, MINIMUM, schema);
         if (minimum != null)
         {
-            if (number.compareTo(minimum) < 0)
+            if (JsonNumber.compare(number, minimum.getAsString()) < 0)
             {
-                throw new JsonValidationException("Invalid: Property '" + path +
-                        "' has a value of '" + number + "' which is less than the minimum of '" + minimum + "'.");
+                throw new Invalid("Invalid: Property '" + path + "' has a value of '" + new BigDecimal(number) +
+                        "' which is less than the minimum of '" + minimum.getAsBigDecimal() + "'.");
             }
         }
 
-        BigDecimal maximum = getBigDecimal(path, MAXIMUM, schema);
+        JsonPrimitive maximum = getNumber(path, MAXIMUM, schema);
         if (maximum != null)
         {
-            if (number.compareTo(maximum) > 0)
+            if (JsonNumber.compare(number, maximum.getAsString()) > 0)
             {
-                throw new JsonValidationException("Invalid: Property '" + path +
-                        "' has a value of '" + number + "' which is greater than the maximum of '" + maximum + "'.");
+                throw new Invalid("Invalid: Property '" + path + "' has a value of '" + new BigDecimal(number) +
+                        "' which is greater than the maximum of '" + maximum.getAsBigDecimal() + "'.");
             }
         }
     }
 
-    static void validate(String path, JsonObject schema, JsonElement element) throws JsonValidationException
+    static void validate(JsonPath path, JsonObject schema, JsonElement element) throws JsonValidationException
     {
         Set<Type> typeSet = getTypeSet(path, schema);
 
         Type type = getType(element);
         if ( ! typeSet.contains(type)) {
-            throw WrongType.generate(path, typeSet, type);
+            throw WrongType.generate(path.toString(), typeSet, type);
         }
 
         switch (type)
@@ -412,7 +458,7 @@ public class JsonValidator
             case NUMBER:
             case INTEGER:
             {
-                validateNumber(path, schema, element.getAsBigDecimal());
+                validateNumber(path, schema, element);
                 break;
             }
             case ARRAY:
@@ -442,16 +488,41 @@ public class JsonValidator
     }
 
     static public void validate(JsonObject schema, JsonElement element) throws JsonValidationException {
-        validate("$", schema, element);
+        validate(JsonPath.root(), schema, element);
     }
 
     public void validate(JsonElement element) throws JsonValidationException {
         validate(getSchema(), element);
     }
 
+    private static void logUnknownType(Object path) {
+        // Do not build the message if it is going to be dropped anyway
+        if (Logger.isLoggable(LogLevel.Warning)) {
+            Logger.w(TAG, "Schema: Unknown type at '" + path + "'");
+        }
+    }
+
 // MARK: - Inner Types
 
-    static class WrongType extends JsonValidationException
+    /**
+     * Thrown when a document does not conform to the schema. Does not capture a stack trace: it reports
+     * bad input rather than a bug, and validating batches of bad documents should not pay for it.
+     */
+    static class Invalid extends JsonValidationException
+    {
+        Invalid(String msg) {
+            super(msg);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class WrongType extends Invalid
     {
         WrongType(String msg) {
             super(msg);
@@ -518,7 +589,31 @@ public class JsonValidator
     static final public String ITEMS = "items";
     static final public String ENUM = "enum";
 
+    private static final int PATTERN_CACHE_SIZE = 64;
+
+    private static final Type[] TYPES = Type.values();
+
+    private static final Set<Type> ANY_TYPES = Collections.unmodifiableSet(EnumSet.allOf(Type.class));
+    private static final Set<Type> NUMBER_TYPES = Collections.unmodifiableSet(EnumSet.of(Type.NUMBER, Type.INTEGER));
+    private static final Map<Type, Set<Type>> SIMPLE_TYPES = new EnumMap<>(Type.class);
+
+    static {
+        for (Type type : TYPES) {
+            SIMPLE_TYPES.put(type, Collections.singleton(type));
+        }
+    }
+
+    // Never modified, stands for a missing schema that accepts anything
+    private static final JsonObject EMPTY_SCHEMA = new JsonObject();
+
 // MARK: - Variables
 
+    private static final LruCache<String, Pattern> sPatternCache = new LruCache<String, Pattern>(PATTERN_CACHE_SIZE) {
+        @Override
+        protected Pattern create(@NonNull String pattern) {
+            return Pattern.compile(pattern);
+        }
+    };
+
     private JsonObject mSchema;
 }
@@ -0,0 +1,360 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Type;
+import com.roxiemobile.androidcommons.data.validator.SchemaNode.Property;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+/**
+ * Generates the Java source of a validator for a schema, e.g. from a build script.
+ * <p>
+ * The generated class extends {@link GeneratedJsonValidator} and has a static method for every level of
+ * the schema with the attribute checks inlined, so validating a document does not look up the schema
+ * at all. The generated validator reports the same errors as {@link JsonValidator}.
+ */
+public final class JsonValidatorGenerator
+{
+// MARK: - Construction
+
+    private JsonValidatorGenerator() {
+        mMethods = new StringBuilder();
+        mConstants = new StringBuilder();
+    }
+
+// MARK: - Methods
+
+    /**
+     * Generates the source of a validator class. All schema errors are reported here, the same way
+     * {@link JsonValidator#compile(JsonObject)} reports them.
+     *
+     * @param schema The schema to generate the validator for
+     * @param packageName The package of the generated class, may be empty
+     * @param className The simple name of the generated class
+     */
+    public static String generate(JsonObject schema, String packageName, String className) throws JsonValidationException {
+        Guard.notNull(schema, "schema is null");
+        Guard.notNull(packageName, "packageName is null");
+        Guard.notEmpty(className, "className is empty");
+
+        JsonValidatorGenerator generator = new JsonValidatorGenerator();
+        String root = generator.generateNode(SchemaNode.compile(schema));
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(JsonValidatorGenerator.class.getSimpleName()).append(", do not edit.\n");
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n");
+        }
+        source.append('\n');
+
+        for (String type : IMPORTS) {
+            source.append("import ").append(type).append(";\n");
+        }
+
+        source.append('\n')
+                .append("public final class ").append(className).append(" extends GeneratedJsonValidator\n")
+                .append("{\n")
+                .append("    @Override\n")
+                .append("    protected void validate(Path path, JsonElement element) throws JsonValidationException {\n");
+        if (root != null) {
+            source.append("        ").append(root).append("(path, element);\n");
+        }
+        source.append("    }\n")
+                .append(generator.mMethods)
+                .append('\n')
+                .append(generator.mConstants)
+                .append("}\n");
+
+        // Done
+        return source.toString();
+    }
+
+// MARK: - Private Methods
+
+    /**
+     * Generates the method validating the node and returns its name, or {@code null} if the node accepts anything.
+     */
+    private String generateNode(SchemaNode node) {
+        if (node.mAcceptsAnything) {
+            return null;
+        }
+
+        int id = mNextId++;
+        String name = "validate" + id;
+
+        // Nested methods are generated first, the method of this node goes after them
+        StringBuilder body = new StringBuilder();
+
+        if (node.mMinimum != null || node.mMaximum != null) {
+            body.append("        if (type == NUMBER || type == INTEGER) {\n")
+                    .append("            String number = element.getAsString();\n");
+            // The bounds are parsed once, when the generated class is initialized
+            if (node.mMinimum != null) {
+                String constant = "MINIMUM_" + id;
+                appendBound(constant, node.mMinimum);
+                body.append("            checkMinimum(path, number, ").append(constant).append(");\n");
+            }
+            if (node.mMaximum != null) {
+                String constant = "MAXIMUM_" + id;
+                appendBound(constant, node.mMaximum);
+                body.append("            checkMaximum(path, number, ").append(constant).append(");\n");
+            }
+            body.append("        }\n");
+        }
+
+        if (node.mMinLength != null || node.mMaxLength != null || node.mPattern != null) {
+            body.append("        if (type == STRING) {\n")
+                    .append("            String str = element.getAsString();\n");
+            if (node.mMinLength != null) {
+                body.append("            checkMinLength(path, str, ").append(node.mMinLength).append(");\n");
+            }
+            if (node.mMaxLength != null) {
+                body.append("            checkMaxLength(path, str, ").append(node.mMaxLength).append(");\n");
+            }
+            if (node.mPattern != null) {
+                String constant = "PATTERN_" + id;
+                mConstants.append("    private static final Pattern ").append(constant)
+                        .append(" = Pattern.compile(").append(quote(node.mPatternString)).append(");\n");
+                body.append("            checkPattern(path, str, ").append(constant).append(");\n");
+            }
+            body.append("        }\n");
+        }
+
+        if (node.mTuple != null) {
+            generateTuple(body, node);
+        }
+        else if (node.mItems != null && !node.mItems.mAcceptsAnything) {
+            String items = generateNode(node.mItems);
+            body.append("        if (type == ARRAY) {\n")
+                    .append("            JsonArray array = element.getAsJsonArray();\n")
+                    .append("            for (int idx = 0, size = array.size(); idx < size; ++idx) {\n")
+                    .append("                path.pushIndex(idx + 1);\n")
+                    .append("                ").append(items).append("(path, array.get(idx));\n")
+                    .append("                path.pop();\n")
+                    .append("            }\n")
+                    .append("        }\n");
+        }
+
+        if (node.mProperties != null) {
+            generateProperties(body, node);
+        }
+
+        if (node.mEnum != null) {
+            JsonArray values = new JsonArray();
+            for (JsonElement value : node.mEnum) {
+                values.add(value);
+            }
+
+            String constant = "ENUM_" + id;
+            mConstants.append("    private static final JsonElement[] ").append(constant)
+                    .append(" = enumValues(").append(quote(values.toString())).append(");\n");
+            body.append("        checkEnum(path, element, ").append(constant).append(");\n");
+        }
+
+        // The type is checked first, the result is needed only if there are checks of particular types
+        String typeCheck = "typeOf(path, element, " + typeMask(node) + ");\n";
+        if (body.indexOf("type == ") >= 0) {
+            body.insert(0, "        int type = " + typeCheck);
+        }
+        else if (node.mTypes.size() < Type.values().length) {
+            body.insert(0, "        " + typeCheck);
+        }
+
+        mMethods.append('\n')
+                .append("    private static void ").append(name)
+                .append("(Path path, JsonElement element) throws JsonValidationException {\n")
+                .append(body)
+                .append("    }\n");
+
+        // Done
+        return name;
+    }
+
+    private void generateTuple(StringBuilder body, SchemaNode node) {
+        body.append("        if (type == ARRAY) {\n")
+                .append("            JsonArray array = element.getAsJsonArray();\n")
+                .append("            for (int idx = 0, size = array.size(); idx < size; ++idx) {\n")
+                .append("                path.pushIndex(idx + 1);\n")
+                .append("                switch (idx) {\n");
+
+        for (int idx = 0; idx < node.mTuple.length; ++idx) {
+            body.append("                    case ").append(idx).append(":\n");
+            appendCall(body, "                        ", generateNode(node.mTuple[idx]), "array.get(idx)");
+            body.append("                        break;\n");
+        }
+
+        // Items past the tuple are described by the additional schema
+        body.append("                    default:\n");
+        if (node.mAdditionalProperties == null) {
+            body.append("                        throw additionalItem(path);\n");
+        }
+        else {
+            appendCall(body, "                        ", generateNode(node.mAdditionalProperties), "array.get(idx)");
+            body.append("                        break;\n");
+        }
+
+        body.append("                }\n")
+                .append("                path.pop();\n")
+                .append("            }\n")
+                .append("        }\n");
+    }
+
+    private void generateProperties(StringBuilder body, SchemaNode node) {
+        SchemaNode additional = node.mAdditionalProperties;
+        boolean checksAdditional = (additional == null || !additional.mAcceptsAnything);
+
+        body.append("        if (type == OBJECT) {\n")
+                .append("            JsonObject obj = element.getAsJsonObject();\n")
+                .append(checksAdditional ? "            int found = 0;\n" : "")
+                .append("            JsonElement value;\n");
+
+        for (Property property : node.mProperties) {
+            String name = quote(property.mName);
+            String method = generateNode(property.mNode);
+
+            body.append('\n')
+                    .append("            value = obj.get(").append(name).append(");\n")
+                    .append("            if (value != null) {\n")
+                    .append(checksAdditional ? "                found++;\n" : "");
+            if (method != null) {
+                body.append("                path.pushName(").append(name).append(");\n")
+                        .append("                ").append(method).append("(path, value);\n")
+                        .append("                path.pop();\n");
+            }
+            body.append("            }\n");
+
+            if (!property.mOptional) {
+                body.append("            else {\n")
+                        .append("                throw missingProperty(path, ").append(name).append(");\n")
+                        .append("            }\n");
+            }
+        }
+
+        // Look for the additional properties only if they matter and there can be any
+        if (checksAdditional) {
+            body.append('\n')
+                    .append("            if (obj.size() > found) {\n")
+                    .append("                for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {\n");
+
+            // Without declared properties every property is an additional one, a switch would have no cases
+            String indent = "                    ";
+            boolean hasProperties = (node.mProperties.length > 0);
+            if (hasProperties) {
+                body.append("                    switch (entry.getKey()) {\n");
+                for (Property property : node.mProperties) {
+                    body.append("                        case ").append(quote(property.mName)).append(":\n");
+                }
+                body.append("                            break;\n")
+                        .append("                        default:\n");
+                indent = "                            ";
+            }
+
+            if (additional == null) {
+                body.append(indent).append("throw additionalProperty(path, entry.getKey());\n");
+            }
+            else {
+                body.append(indent).append("path.pushName(entry.getKey());\n")
+                        .append(indent).append(generateNode(additional)).append("(path, entry.getValue());\n")
+                        .append(indent).append("path.pop();\n");
+                if (hasProperties) {
+                    body.append(indent).append("break;\n");
+                }
+            }
+
+            if (hasProperties) {
+                body.append("                    }\n");
+            }
+            body.append("                }\n")
+                    .append("            }\n");
+        }
+
+        body.append("        }\n");
+    }
+
+    private void appendBound(String constant, JsonNumber.Bound bound) {
+        mConstants.append("    private static final Bound ").append(constant)
+                .append(" = bound(").append(quote(bound.getValue().toString())).append(");\n");
+    }
+
+    private static void appendCall(StringBuilder body, String indent, String method, String argument) {
+        if (method != null) {
+            body.append(indent).append(method).append("(path, ").append(argument).append(");\n");
+        }
+    }
+
+    private static String typeMask(SchemaNode node) {
+        StringBuilder mask = new StringBuilder();
+        for (Type type : node.mTypes) {
+            if (mask.length() > 0) {
+                mask.append(" | ");
+            }
+            mask.append(type.name());
+        }
+
+        // Done
+        return mask.toString();
+    }
+
+    /**
+     * Returns the Java string literal of the value.
+     */
+    private static String quote(String value) {
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+
+        for (int idx = 0; idx < value.length(); ++idx) {
+            char ch = value.charAt(idx);
+            switch (ch) {
+                case '"':
+                case '\\': {
+                    literal.append('\\').append(ch);
+                    break;
+                }
+                case '\n': {
+                    literal.append("\\n");
+                    break;
+                }
+                case '\r': {
+                    literal.append("\\r");
+                    break;
+                }
+                case '\t': {
+                    literal.append("\\t");
+                    break;
+                }
+                default: {
+                    if (ch < 0x20 || ch > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) ch));
+                    }
+                    else {
+                        literal.append(ch);
+                    }
+                    break;
+                }
+            }
+        }
+
+        // Done
+        return literal.append('"').toString();
+    }
+
+// MARK: - Constants
+
+    private static final String[] IMPORTS = {
+            "com.google.gson.JsonArray",
+            "com.google.gson.JsonElement",
+            "com.google.gson.JsonObject",
+            "com.roxiemobile.androidcommons.data.validator.GeneratedJsonValidator",
+            "com.roxiemobile.androidcommons.data.validator.JsonValidationException",
+            "java.util.Map",
+            "java.util.regex.Pattern"
+    };
+
+// MARK: - Variables
+
+    private final StringBuilder mMethods;
+
+    private final StringBuilder mConstants;
+
+    private int mNextId;
+}
@@ -0,0 +1,63 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.concurrent.ChunkRunner;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Validates a range of sibling values in chunks on an executor.
+ * <p>
+ * The chunks are run by the {@link ChunkRunner}, so the calling thread takes part in the work and
+ * the failure of the lowest chunk is reported, which is the failure the sequential validation
+ * would have stopped at.
+ */
+final class ParallelValidation
+{
+// MARK: - Construction
+
+    private ParallelValidation() {
+        // Do nothing
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns {@code true} if a range of the specified size is worth splitting.
+     */
+    static boolean isWorthSplitting(int size) {
+        return (size >= MIN_PARALLEL_SIZE) && (CPU_COUNT > 1);
+    }
+
+    /**
+     * Validates the values of the range {@code [0, size)} and throws the failure of the lowest chunk, if any.
+     */
+    static void run(ExecutorService executor, JsonPath path, int size, RangeValidator validator)
+            throws JsonValidationException {
+        final JsonPath prefix = path.copy();
+
+        int chunkCount = Math.max(1, Math.min(size / MIN_CHUNK_SIZE, CPU_COUNT * CHUNKS_PER_CPU));
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+
+        // Every chunk gets its own copy of the path
+        ChunkRunner.run(executor, size, Math.max(chunkSize, 1), (start, end) ->
+                validator.validate(prefix.copy(), start, end));
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * Validates the values of the range {@code [start, end)} sequentially.
+     */
+    interface RangeValidator
+    {
+        void validate(JsonPath path, int start, int end) throws JsonValidationException;
+    }
+
+// MARK: - Constants
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int CHUNKS_PER_CPU = 4;
+
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final int MIN_PARALLEL_SIZE = MIN_CHUNK_SIZE * 4;
+}
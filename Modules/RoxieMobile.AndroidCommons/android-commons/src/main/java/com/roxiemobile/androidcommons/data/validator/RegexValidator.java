@@ -16,11 +16,12 @@
  */
 package com.roxiemobile.androidcommons.data.validator;
 
-import com.annimon.stream.Stream;
-
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * <b>Regular Expression</b> validation (using JDK 1.4+ regex support).
@@ -64,6 +65,19 @@ import java.util.regex.Pattern;
  * to the {@link Pattern} API are safe to use in a multi-threaded environment.
  * </p>
  *
+ * <p>
+ * A set of regular expressions is combined into a single alternation, so a value
+ * is scanned once whatever the number of expressions. The alternatives are tried
+ * in order, so the result is the same as of trying the expressions one by one.
+ * Expressions with back references or inline flags cannot be combined safely and
+ * are tried one by one.
+ * </p>
+ *
+ * <p>
+ * Each thread reuses its own {@link Matcher}(s), which are reset on every call,
+ * so a validation does not allocate a new matcher.
+ * </p>
+ *
  * @version $Revision: 1649191 $
  * @since Validator 1.4
  */
@@ -71,8 +85,35 @@ public class RegexValidator implements Serializable {
 
     private static final long serialVersionUID = -8832409930574867162L;
 
+    private static final String EMPTY = "";
+
     private final Pattern[] patterns;
 
+    /**
+     * The alternation of all patterns or <code>null</code> if they
+     * have to be tried one by one. Derived from the patterns, so it is
+     * rebuilt on deserialization rather than written to the stream.
+     */
+    private transient Pattern combined;
+
+    /**
+     * The index of the group enclosing each alternative of the combined
+     * pattern, the groups of the alternative follow it.
+     */
+    private transient int[] groupOffsets;
+
+    /**
+     * The number of groups of each pattern.
+     */
+    private transient int[] groupCounts;
+
+    /**
+     * The reusable matchers of the current thread, one per pattern
+     * or the single one of the combined pattern. Created lazily,
+     * since thread locals cannot be serialized.
+     */
+    private transient volatile ThreadLocal<Matcher[]> matchers;
+
     /**
      * Construct a <i>case sensitive</i> validator for a single
      * regular expression.
@@ -129,6 +170,19 @@ public class RegexValidator implements Serializable {
             }
             patterns[i] =  Pattern.compile(regexs[i], flags);
         }
+        initCombined(regexs, flags);
+    }
+
+    /**
+     * Rebuilds the combined pattern, which is not serialized.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        String[] regexs = new String[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            regexs[i] = patterns[i].pattern();
+        }
+        initCombined(regexs, patterns[0].flags());
     }
 
     /**
@@ -138,7 +192,56 @@ public class RegexValidator implements Serializable {
      * @return {@code true} if the value is valid otherwise {@code false}.
      */
     public boolean isValid(CharSequence value) {
-        return (value != null) && Stream.of(this.patterns).anyMatch(pattern -> pattern.matcher(value).matches());
+        return matchIndex(value) >= 0;
+    }
+
+    /**
+     * Validate the range <code>[start, end)</code> of a value against the set
+     * of regular expressions, as if it was a separate value.
+     *
+     * @param value The value containing the range to validate.
+     * @param start The index of the first character of the range.
+     * @param end The index after the last character of the range.
+     * @return {@code true} if the range is valid otherwise {@code false}.
+     */
+    public boolean isValid(CharSequence value, int start, int end) {
+        return matchIndex(value, start, end) >= 0;
+    }
+
+    /**
+     * Validate a value against the set of regular expressions
+     * returning the index of the first expression it matches.
+     *
+     * @param value The value to validate.
+     * @return The index of the regular expression the value matches
+     * or <code>-1</code> if invalid
+     */
+    public int matchIndex(CharSequence value) {
+        if (value == null) {
+            return -1;
+        }
+        return matchIndex(value, 0, value.length());
+    }
+
+    /**
+     * Validate the range <code>[start, end)</code> of a value against the set
+     * of regular expressions returning the index of the first expression it matches.
+     *
+     * @param value The value containing the range to validate.
+     * @param start The index of the first character of the range.
+     * @param end The index after the last character of the range.
+     * @return The index of the regular expression the range matches
+     * or <code>-1</code> if invalid
+     */
+    public int matchIndex(CharSequence value, int start, int end) {
+        if (value == null) {
+            return -1;
+        }
+        Matcher[] current = matchers().get();
+        Matcher matcher = matcher(current, value, start, end);
+        int index = (matcher != null) ? alternativeOf(matcher) : -1;
+        release(current);
+        return index;
     }
 
     /**
@@ -153,18 +256,20 @@ public class RegexValidator implements Serializable {
         if (value == null) {
             return null;
         }
-        for (Pattern pattern : patterns) {
-            Matcher matcher = pattern.matcher(value);
-            if (matcher.matches()) {
-                int count = matcher.groupCount();
-                String[] groups = new String[count];
-                for (int j = 0; j < count; j++) {
-                    groups[j] = matcher.group(j + 1);
-                }
-                return groups;
-            }
+        Matcher[] current = matchers().get();
+        Matcher matcher = matcher(current, value, 0, value.length());
+        if (matcher == null) {
+            release(current);
+            return null;
         }
-        return null;
+        int index = alternativeOf(matcher);
+        int count = groupCounts[index];
+        String[] groups = new String[count];
+        for (int j = 0; j < count; j++) {
+            groups[j] = matcher.group(groupOffsets[index] + j + 1);
+        }
+        release(current);
+        return groups;
     }
 
 
@@ -180,24 +285,167 @@ public class RegexValidator implements Serializable {
         if (value == null) {
             return null;
         }
-        for (Pattern pattern : patterns) {
-            Matcher matcher = pattern.matcher(value);
-            if (matcher.matches()) {
-                int count = matcher.groupCount();
-                if (count == 1) {
-                    return matcher.group(1);
+        Matcher[] current = matchers().get();
+        Matcher matcher = matcher(current, value, 0, value.length());
+        if (matcher == null) {
+            release(current);
+            return null;
+        }
+        int index = alternativeOf(matcher);
+        int count = groupCounts[index];
+        String result;
+        if (count == 1) {
+            result = matcher.group(groupOffsets[index] + 1);
+        } else {
+            StringBuilder buffer = new StringBuilder();
+            for (int j = 0; j < count; j++) {
+                String component = matcher.group(groupOffsets[index] + j + 1);
+                if (component != null) {
+                    buffer.append(component);
                 }
-                StringBuilder buffer = new StringBuilder();
-                for (int j = 0; j < count; j++) {
-                    String component = matcher.group(j + 1);
-                    if (component != null) {
-                        buffer.append(component);
+            }
+            result = buffer.toString();
+        }
+        release(current);
+        return result;
+    }
+
+    /**
+     * Returns the matcher of the current thread which matched the range of the value,
+     * either of the combined pattern or of the first pattern the range matches.
+     * The matcher is valid until the matchers are released.
+     */
+    private static Matcher matcher(Matcher[] current, CharSequence value, int start, int end) {
+        for (int i = 0; i < current.length; i++) {
+            // The bounds of the region are anchoring and opaque, so the range is matched as a separate value
+            Matcher matcher = current[i].reset(value).region(start, end);
+            if (matcher.matches()) {
+                return matcher;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resets the matchers of the current thread, so they do not keep the last value.
+     */
+    private static void release(Matcher[] current) {
+        for (Matcher matcher : current) {
+            matcher.reset(EMPTY);
+        }
+    }
+
+    private ThreadLocal<Matcher[]> matchers() {
+        ThreadLocal<Matcher[]> result = matchers;
+        if (result == null) {
+            // A concurrently created thread local is just dropped
+            matchers = result = new ThreadLocal<Matcher[]>() {
+                @Override
+                protected Matcher[] initialValue() {
+                    Pattern[] source = (combined != null) ? new Pattern[] {combined} : patterns;
+                    Matcher[] matchers = new Matcher[source.length];
+                    for (int i = 0; i < source.length; i++) {
+                        matchers[i] = source[i].matcher(EMPTY);
                     }
+                    return matchers;
+                }
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the alternative the successful matcher matched.
+     */
+    private int alternativeOf(Matcher matcher) {
+        if (combined == null) {
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i] == matcher.pattern()) {
+                    return i;
                 }
-                return buffer.toString();
             }
         }
-        return null;
+        // Only the group of the matched alternative takes part in the match
+        for (int i = 0; i < groupOffsets.length - 1; i++) {
+            if (matcher.start(groupOffsets[i]) >= 0) {
+                return i;
+            }
+        }
+        return groupOffsets.length - 1;
+    }
+
+    /**
+     * Counts the groups of the patterns and combines them if possible.
+     */
+    private void initCombined(String[] regexs, int flags) {
+        groupCounts = new int[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            groupCounts[i] = patterns[i].matcher("").groupCount();
+        }
+        groupOffsets = new int[patterns.length];
+        combined = combine(regexs, flags);
+    }
+
+    /**
+     * Combines the regular expressions into an alternation and fills
+     * in the group offsets. Returns <code>null</code> if the expressions
+     * have to be tried one by one, the group offsets are left zero then.
+     */
+    private Pattern combine(String[] regexs, int flags) {
+        if (regexs.length == 1) {
+            // The group offset is zero, the single pattern does the job
+            return patterns[0];
+        }
+        StringBuilder buffer = new StringBuilder();
+        // The offsets are published only if the combined pattern is used
+        int[] offsets = new int[regexs.length];
+        int offset = 1;
+        for (int i = 0; i < regexs.length; i++) {
+            if (!isCombinable(regexs[i])) {
+                return null;
+            }
+            if (i > 0) {
+                buffer.append('|');
+            }
+            buffer.append('(').append(regexs[i]).append(')');
+            offsets[i] = offset;
+            offset += groupCounts[i] + 1;
+        }
+        try {
+            Pattern pattern = Pattern.compile(buffer.toString(), flags);
+            if (pattern.matcher("").groupCount() != offset - 1) {
+                return null;
+            }
+            System.arraycopy(offsets, 0, groupOffsets, 0, offsets.length);
+            return pattern;
+        } catch (PatternSyntaxException e) {
+            // E.g. duplicate group names
+            return null;
+        }
+    }
+
+    /**
+     * Returns <code>false</code> if the regular expression has back references,
+     * which are numbered differently in the alternation, inline flags, which
+     * could leak into the other alternatives, or quoted sections.
+     */
+    private static boolean isCombinable(String regex) {
+        for (int i = 0; i < regex.length() - 1; i++) {
+            char ch = regex.charAt(i);
+            char next = regex.charAt(i + 1);
+            if (ch == '\\') {
+                if ((next >= '1' && next <= '9') || next == 'k' || next == 'Q') {
+                    return false;
+                }
+                i++;
+            } else if (ch == '(' && next == '?' && i + 2 < regex.length()) {
+                char kind = regex.charAt(i + 2);
+                if (kind != ':' && kind != '=' && kind != '!' && kind != '<' && kind != '>') {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     /**
@@ -0,0 +1,657 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.bind.TypeAdapters;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Invalid;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Type;
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.WrongType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * An immutable validator of a single schema level, compiled once by {@link JsonValidator#compile(JsonObject)}.
+ * <p>
+ * All attributes are looked up and parsed at compile time and the nested schemas are compiled
+ * to child nodes, so validating a document does not touch the schema at all. The rules are the same
+ * as the ones {@link JsonValidator} interprets.
+ */
+final class SchemaNode
+{
+// MARK: - Construction
+
+    private SchemaNode(String path, JsonObject schema) throws JsonValidationException {
+        mTypes = EnumSet.copyOf(JsonValidator.getTypeSet(path, schema));
+        mAnyNumber = mTypes.contains(Type.NUMBER) && mTypes.contains(Type.INTEGER);
+
+        mMinLength = JsonValidator.getInt(path, JsonValidator.MIN_LENGTH, schema);
+        mMaxLength = JsonValidator.getInt(path, JsonValidator.MAX_LENGTH, schema);
+        mMinimum = toBound(JsonValidator.getBigDecimal(path, JsonValidator.MINIMUM, schema));
+        mMaximum = toBound(JsonValidator.getBigDecimal(path, JsonValidator.MAXIMUM, schema));
+
+        mPatternString = JsonValidator.getString(path, JsonValidator.PATTERN, schema);
+        mPattern = compilePattern(path, mPatternString);
+
+        JsonElement properties = schema.get(JsonValidator.PROPERTIES);
+        if (properties != null && !properties.isJsonNull()) {
+            if (!properties.isJsonObject()) {
+                throw new JsonValidationException("Bad Schema: '" + JsonValidator.PROPERTIES +
+                        "' attribute is not an object at '" + path + "'");
+            }
+
+            Set<Map.Entry<String, JsonElement>> entries = properties.getAsJsonObject().entrySet();
+            mProperties = new Property[entries.size()];
+            mPropertyIndices = new HashMap<>(entries.size() * 2);
+
+            int idx = 0;
+            for (Map.Entry<String, JsonElement> entry : entries) {
+                mPropertyIndices.put(entry.getKey(), idx);
+                mProperties[idx++] = new Property(path, entry.getKey(), entry.getValue());
+            }
+        }
+        else {
+            mProperties = null;
+            mPropertyIndices = null;
+        }
+
+        // A missing "additionalProperties" accepts anything, anything but a schema forbids them
+        JsonElement additionalProperties = schema.get(JsonValidator.ADDITIONAL_PROPERTIES);
+        if (additionalProperties == null) {
+            mAdditionalProperties = ANY;
+        }
+        else if (additionalProperties.isJsonObject()) {
+            mAdditionalProperties = new SchemaNode(path + "['*']", additionalProperties.getAsJsonObject());
+        }
+        else {
+            mAdditionalProperties = null;
+        }
+
+        // Bogus "items" values accept any items
+        JsonElement items = schema.get(JsonValidator.ITEMS);
+        mItems = (items != null && items.isJsonObject()) ? new SchemaNode(path + "[*]", items.getAsJsonObject()) : null;
+
+        if (items != null && items.isJsonArray()) {
+            JsonArray tuple = items.getAsJsonArray();
+            mTuple = new SchemaNode[tuple.size()];
+
+            for (int idx = 0; idx < mTuple.length; ++idx) {
+                String itemPath = path + "[" + (idx + 1) + "]";
+                if (!tuple.get(idx).isJsonObject()) {
+                    throw new JsonValidationException("Bad Schema: tuple item definition not an object at '" + itemPath + "'");
+                }
+                mTuple[idx] = new SchemaNode(itemPath, tuple.get(idx).getAsJsonObject());
+            }
+        }
+        else {
+            mTuple = null;
+        }
+
+        JsonElement enumElement = schema.get(JsonValidator.ENUM);
+        if (enumElement != null) {
+            if (!enumElement.isJsonArray()) {
+                throw new JsonValidationException("Bad Schema: '" + path + "' enum parameter is invalid.");
+            }
+
+            JsonArray array = enumElement.getAsJsonArray();
+            mEnum = new JsonElement[array.size()];
+            for (int idx = 0; idx < mEnum.length; ++idx) {
+                mEnum[idx] = array.get(idx);
+            }
+        }
+        else {
+            mEnum = null;
+        }
+
+        mAcceptsAnything = mTypes.size() == Type.values().length && mMinLength == null && mMaxLength == null &&
+                mMinimum == null && mMaximum == null && mPattern == null && mProperties == null &&
+                (mItems == null || mItems.mAcceptsAnything) && mTuple == null && mEnum == null;
+    }
+
+    private SchemaNode() {
+        mTypes = EnumSet.allOf(Type.class);
+        mAnyNumber = true;
+        mMinLength = mMaxLength = null;
+        mMinimum = mMaximum = null;
+        mPatternString = null;
+        mPattern = null;
+        mProperties = null;
+        mPropertyIndices = null;
+        mAdditionalProperties = this;
+        mItems = null;
+        mTuple = null;
+        mEnum = null;
+        mAcceptsAnything = true;
+    }
+
+    static SchemaNode compile(JsonObject schema) throws JsonValidationException {
+        return new SchemaNode(JsonPath.ROOT, schema);
+    }
+
+// MARK: - Methods
+
+    void validate(JsonPath path, JsonElement element) throws JsonValidationException {
+        validate(path, element, null, null);
+    }
+
+    /**
+     * Validates the element splitting large arrays and objects into chunks on the executor, if any.
+     * The values of each chunk are validated sequentially.
+     */
+    void validate(JsonPath path, JsonElement element, ExecutorService executor) throws JsonValidationException {
+        validate(path, element, executor, null);
+    }
+
+    /**
+     * Validates the element collecting all violations into the report instead of stopping at the first one.
+     */
+    void validate(JsonPath path, JsonElement element, ValidationReport report) {
+        try {
+            validate(path, element, null, report);
+        }
+        catch (JsonValidationException e) {
+            // The report is full
+        }
+    }
+
+    /**
+     * Validates the next value of the reader and consumes it. Stops at the first violation found
+     * in the document order, leaving the reader in the middle of the value.
+     */
+    void validate(JsonPath path, JsonReader reader) throws JsonValidationException, IOException {
+        if (mAcceptsAnything) {
+            reader.skipValue();
+            return;
+        }
+
+        if (mEnum != null) {
+            // Enum values are compared as trees, only the subtree of this value is built
+            validate(path, TypeAdapters.JSON_ELEMENT.read(reader));
+            return;
+        }
+
+        Type type;
+        String number = null;
+
+        JsonToken token = reader.peek();
+        switch (token) {
+            case BEGIN_OBJECT: {
+                type = Type.OBJECT;
+                break;
+            }
+            case BEGIN_ARRAY: {
+                type = Type.ARRAY;
+                break;
+            }
+            case STRING: {
+                type = Type.STRING;
+                break;
+            }
+            case BOOLEAN: {
+                type = Type.BOOLEAN;
+                break;
+            }
+            case NULL: {
+                type = Type.NULL;
+                break;
+            }
+            case NUMBER: {
+                if (mAnyNumber && mMinimum == null && mMaximum == null) {
+                    // Whether it is an integer does not matter, skip the conversion
+                    type = Type.NUMBER;
+                }
+                else {
+                    number = reader.nextString();
+                    type = JsonNumber.getType(number);
+                }
+                break;
+            }
+            default: {
+                throw new MalformedJsonException("Expected a value but was " + token + " at " + reader.getPath());
+            }
+        }
+
+        if (!mTypes.contains(type)) {
+            throw WrongType.generate(path.toString(), mTypes, type);
+        }
+
+        switch (type) {
+            case NUMBER:
+            case INTEGER: {
+                if (number != null) {
+                    validateNumber(path, number, null);
+                }
+                else {
+                    reader.skipValue();
+                }
+                break;
+            }
+            case STRING: {
+                validateString(path, reader.nextString(), null);
+                break;
+            }
+            case ARRAY: {
+                validateArray(path, reader);
+                break;
+            }
+            case OBJECT: {
+                validateObject(path, reader);
+                break;
+            }
+            default: {
+                reader.skipValue();
+                break;
+            }
+        }
+    }
+
+// MARK: - Private Methods
+
+    private void validate(JsonPath path, JsonElement element, ExecutorService executor, ValidationReport report)
+            throws JsonValidationException {
+        if (mAcceptsAnything) {
+            return;
+        }
+
+        Type type;
+        String number = null;
+
+        if (element.isJsonObject()) {
+            type = Type.OBJECT;
+        }
+        else if (element.isJsonArray()) {
+            type = Type.ARRAY;
+        }
+        else if (element.isJsonNull()) {
+            type = Type.NULL;
+        }
+        else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                type = Type.STRING;
+            }
+            else if (primitive.isBoolean()) {
+                type = Type.BOOLEAN;
+            }
+            else if (mAnyNumber && mMinimum == null && mMaximum == null) {
+                // Whether it is an integer does not matter, skip the conversion
+                type = Type.NUMBER;
+            }
+            else {
+                // The text of a parsed number is available without conversion
+                number = primitive.getAsString();
+                type = JsonNumber.getType(number);
+            }
+        }
+
+        if (!mTypes.contains(type)) {
+            String at = path.toString();
+            fail(report, at, WrongType.generate(at, mTypes, type));
+            return;
+        }
+
+        switch (type) {
+            case NUMBER:
+            case INTEGER: {
+                if (number != null) {
+                    validateNumber(path, number, report);
+                }
+                break;
+            }
+            case STRING: {
+                validateString(path, element.getAsString(), report);
+                break;
+            }
+            case ARRAY: {
+                validateArray(path, element.getAsJsonArray(), executor, report);
+                break;
+            }
+            case OBJECT: {
+                validateObject(path, element.getAsJsonObject(), executor, report);
+                break;
+            }
+            default: {
+                break;
+            }
+        }
+
+        if (mEnum != null) {
+            validateEnum(path, element, report);
+        }
+    }
+
+    private void validateNumber(JsonPath path, String number, ValidationReport report)
+            throws JsonValidationException {
+        if (mMinimum != null && mMinimum.isGreaterThan(number)) {
+            String at = path.toString();
+            fail(report, at, new Invalid("Invalid: Property '" + at +
+                    "' has a value of '" + new BigDecimal(number) + "' which is less than the minimum of '" + mMinimum + "'."));
+        }
+
+        if (mMaximum != null && mMaximum.isLessThan(number)) {
+            String at = path.toString();
+            fail(report, at, new Invalid("Invalid: Property '" + at +
+                    "' has a value of '" + new BigDecimal(number) + "' which is greater than the maximum of '" + mMaximum + "'."));
+        }
+    }
+
+    private void validateString(JsonPath path, String str, ValidationReport report) throws JsonValidationException {
+        if (mMinLength != null && str.length() < mMinLength) {
+            String at = path.toString();
+            fail(report, at, new Invalid("Invalid: String '" + at + "' is too short.  The string needs to be more than " + mMinLength + " characters"));
+        }
+
+        if (mMaxLength != null && str.length() > mMaxLength) {
+            String at = path.toString();
+            fail(report, at, new Invalid("Invalid: String '" + at + "' is too long.  The string needs to be less than " + mMaxLength + " characters"));
+        }
+
+        if (mPattern != null && !mPattern.matcher(str).matches()) {
+            String at = path.toString();
+            fail(report, at, new Invalid("Invalid: String '" + at + "' does not match pattern '" + mPatternString + "'"));
+        }
+    }
+
+    private void validateArray(JsonPath path, JsonArray array, ExecutorService executor, ValidationReport report)
+            throws JsonValidationException {
+        if (mTuple != null) {
+            validateTuple(path, array, report);
+            return;
+        }
+
+        if (mItems == null || mItems.mAcceptsAnything) {
+            return;
+        }
+
+        if (executor != null && ParallelValidation.isWorthSplitting(array.size())) {
+            ParallelValidation.run(executor, path, array.size(), (chunkPath, start, end) ->
+                    validateItems(chunkPath, array, start, end, null, null));
+        }
+        else {
+            validateItems(path, array, 0, array.size(), executor, report);
+        }
+    }
+
+    private void validateItems(JsonPath path, JsonArray array, int start, int end, ExecutorService executor,
+            ValidationReport report) throws JsonValidationException {
+        for (int idx = start; idx < end; ++idx) {
+            path.pushIndex(idx + 1);
+            mItems.validate(path, array.get(idx), executor, report);
+            path.pop();
+        }
+    }
+
+    private void validateTuple(JsonPath path, JsonArray array, ValidationReport report) throws JsonValidationException {
+        for (int idx = 0, size = array.size(); idx < size; ++idx) {
+            path.pushIndex(idx + 1);
+
+            // Items past the tuple are described by the additional schema
+            SchemaNode node = (idx < mTuple.length) ? mTuple[idx] : mAdditionalProperties;
+            if (node != null) {
+                node.validate(path, array.get(idx), null, report);
+            }
+            else {
+                String at = path.toString();
+                fail(report, at, new Invalid("Invalid: Found additional item '" + at + "'"));
+            }
+
+            path.pop();
+        }
+    }
+
+    private void validateObject(JsonPath path, JsonObject obj, ExecutorService executor, ValidationReport report)
+            throws JsonValidationException {
+        if (mProperties == null) {
+            return;
+        }
+
+        if (executor != null && ParallelValidation.isWorthSplitting(mProperties.length)) {
+            ParallelValidation.run(executor, path, mProperties.length, (chunkPath, start, end) ->
+                    validateProperties(chunkPath, obj, start, end, null, null));
+        }
+        else {
+            validateProperties(path, obj, 0, mProperties.length, executor, report);
+        }
+
+        // Look for the additional properties only if they matter and there can be any
+        if ((mAdditionalProperties == null || !mAdditionalProperties.mAcceptsAnything) &&
+                (obj.size() > mProperties.length || obj.size() > countDeclared(obj))) {
+            for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
+                String name = entry.getKey();
+
+                if (!mPropertyIndices.containsKey(name)) {
+                    if (mAdditionalProperties == null) {
+                        String at = path.toString(name);
+                        fail(report, at, new Invalid("Invalid: Found additional property '" + at + "'"));
+                        continue;
+                    }
+
+                    path.pushName(name);
+                    mAdditionalProperties.validate(path, entry.getValue(), executor, report);
+                    path.pop();
+                }
+            }
+        }
+    }
+
+    private void validateArray(JsonPath path, JsonReader reader) throws JsonValidationException, IOException {
+        reader.beginArray();
+
+        for (int idx = 1; reader.hasNext(); ++idx) {
+            SchemaNode node = mItems;
+            if (mTuple != null) {
+                node = (idx <= mTuple.length) ? mTuple[idx - 1] : mAdditionalProperties;
+
+                if (node == null) {
+                    throw new Invalid("Invalid: Found additional item '" + path + "[" + idx + "]'");
+                }
+            }
+
+            if (node != null) {
+                path.pushIndex(idx);
+                node.validate(path, reader);
+                path.pop();
+            }
+            else {
+                reader.skipValue();
+            }
+        }
+
+        reader.endArray();
+    }
+
+    private void validateObject(JsonPath path, JsonReader reader) throws JsonValidationException, IOException {
+        reader.beginObject();
+
+        if (mProperties == null) {
+            while (reader.hasNext()) {
+                reader.nextName();
+                reader.skipValue();
+            }
+        }
+        else {
+            // Objects with up to 64 properties are tracked without allocations
+            long foundMask = 0;
+            boolean[] found = (mProperties.length > Long.SIZE) ? new boolean[mProperties.length] : null;
+
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                Integer index = mPropertyIndices.get(name);
+
+                if (index != null) {
+                    if (found != null) {
+                        found[index] = true;
+                    }
+                    else {
+                        foundMask |= 1L << index;
+                    }
+
+                    path.pushName(name);
+                    mProperties[index].mNode.validate(path, reader);
+                    path.pop();
+                }
+                else if (mAdditionalProperties == null) {
+                    throw new Invalid("Invalid: Found additional property '" + path.toString(name) + "'");
+                }
+                else {
+                    path.pushName(name);
+                    mAdditionalProperties.validate(path, reader);
+                    path.pop();
+                }
+            }
+
+            for (int idx = 0; idx < mProperties.length; ++idx) {
+                boolean isFound = (found != null) ? found[idx] : ((foundMask & (1L << idx)) != 0);
+
+                if (!isFound && !mProperties[idx].mOptional) {
+                    throw new Invalid("Invalid: Required property '" + path.toString(mProperties[idx].mName) + "' not found");
+                }
+            }
+        }
+
+        reader.endObject();
+    }
+
+    private void validateProperties(JsonPath path, JsonObject obj, int start, int end, ExecutorService executor,
+            ValidationReport report) throws JsonValidationException {
+        for (int idx = start; idx < end; ++idx) {
+            Property property = mProperties[idx];
+            JsonElement value = obj.get(property.mName);
+
+            if (value == null) {
+                if (!property.mOptional) {
+                    String at = path.toString(property.mName);
+                    fail(report, at, new Invalid("Invalid: Required property '" + at + "' not found"));
+                }
+            }
+            else {
+                path.pushName(property.mName);
+                property.mNode.validate(path, value, executor, report);
+                path.pop();
+            }
+        }
+    }
+
+    private int countDeclared(JsonObject obj) {
+        int count = 0;
+        for (Property property : mProperties) {
+            count += obj.has(property.mName) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private void validateEnum(JsonPath path, JsonElement element, ValidationReport report)
+            throws JsonValidationException {
+        for (JsonElement value : mEnum) {
+            if (element.equals(value)) {
+                return;
+            }
+        }
+
+        String at = path.toString();
+        fail(report, at, new Invalid("Invalid: Property '" + at + "' is not one of the enum values."));
+    }
+
+    /**
+     * Throws the failure or, if there is a report, adds it to the report. Stops the validation once
+     * the report is full.
+     */
+    private static void fail(ValidationReport report, String path, Invalid failure) throws JsonValidationException {
+        if (report == null) {
+            throw failure;
+        }
+        if (!report.add(path, failure.getMessage())) {
+            throw REPORT_IS_FULL;
+        }
+    }
+
+    private static JsonNumber.Bound toBound(BigDecimal value) {
+        return (value != null) ? new JsonNumber.Bound(value) : null;
+    }
+
+    private static Pattern compilePattern(String path, String pattern) throws JsonValidationException {
+        try {
+            return (pattern != null) ? JsonValidator.getPattern(pattern) : null;
+        }
+        catch (PatternSyntaxException e) {
+            throw new JsonValidationException("Bad Schema: '" + JsonValidator.PATTERN +
+                    "' attribute is not a valid regular expression at '" + path + "'", e);
+        }
+    }
+
+// MARK: - Inner Types
+
+    static final class Property
+    {
+        private Property(String path, String name, JsonElement definition) throws JsonValidationException {
+            String newPath = path + "['" + name + "']";
+
+            if (!definition.isJsonObject()) {
+                throw new JsonValidationException("Bad Schema: property definition not an object at '" + newPath + "'");
+            }
+
+            JsonElement optional = definition.getAsJsonObject().get(JsonValidator.OPTIONAL);
+            if (optional != null && !optional.isJsonPrimitive()) {
+                throw new JsonValidationException("Bad Schema: '" + JsonValidator.OPTIONAL +
+                        "' attribute is not a boolean at '" + newPath + "'");
+            }
+
+            mName = name;
+            mOptional = (optional != null) && optional.getAsBoolean();
+            mNode = new SchemaNode(newPath, definition.getAsJsonObject());
+        }
+
+        final String mName;
+        final boolean mOptional;
+        final SchemaNode mNode;
+    }
+
+// MARK: - Constants
+
+    private static final SchemaNode ANY = new SchemaNode();
+
+    private static final Invalid REPORT_IS_FULL = new Invalid("Too many violations");
+
+// MARK: - Variables
+
+    // The compiled attributes are read by JsonValidatorGenerator as well
+
+    final EnumSet<Type> mTypes;
+    final boolean mAnyNumber;
+
+    final Integer mMinLength;
+    final Integer mMaxLength;
+    final JsonNumber.Bound mMinimum;
+    final JsonNumber.Bound mMaximum;
+
+    final String mPatternString;
+    final Pattern mPattern;
+
+    final Property[] mProperties;
+    final Map<String, Integer> mPropertyIndices;
+
+    /**
+     * The schema of the properties not listed in "properties" or {@code null} if they are not allowed.
+     */
+    final SchemaNode mAdditionalProperties;
+
+    final SchemaNode mItems;
+
+    final SchemaNode[] mTuple;
+
+    final JsonElement[] mEnum;
+
+    final boolean mAcceptsAnything;
+}
@@ -0,0 +1,115 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable open addressing hash table of top-level domains and their categories.
+ * <p>
+ * Lookups run over a range of characters, e.g. the last label of a domain name, and ignore
+ * the case of ASCII letters, so neither a substring nor a lower case copy is created.
+ */
+final class TldTable
+{
+// MARK: - Construction
+
+    /**
+     * Creates the table of the lower case top-level domains and their category flags.
+     */
+    TldTable(Map<String, Integer> categories) {
+        int capacity = Integer.highestOneBit(Math.max(categories.size(), 1) * 2) * 2;
+
+        mKeys = new String[capacity];
+        mCategories = new byte[capacity];
+        mMask = capacity - 1;
+
+        for (Map.Entry<String, Integer> entry : categories.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+
+            String key = entry.getKey();
+            int slot = hash(key, 0, key.length()) & mMask;
+            while (mKeys[slot] != null) {
+                slot = (slot + 1) & mMask;
+            }
+
+            mKeys[slot] = key;
+            mCategories[slot] = entry.getValue().byteValue();
+        }
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns the category flags of the top-level domain in the range {@code [start, end)} of the value,
+     * or {@code 0} if it is unknown. The case is ignored the same way {@code toLowerCase(Locale.ENGLISH)} does.
+     */
+    int getCategories(CharSequence value, int start, int end) {
+        for (int idx = start; idx < end; ++idx) {
+            if (value.charAt(idx) > MAX_ASCII) {
+                // Non-ASCII letters are converted the slow way
+                String key = value.subSequence(start, end).toString().toLowerCase(Locale.ENGLISH);
+                return find(key, 0, key.length());
+            }
+        }
+
+        // Done
+        return find(value, start, end);
+    }
+
+// MARK: - Private Methods
+
+    private int find(CharSequence value, int start, int end) {
+        int length = end - start;
+        for (int slot = hash(value, start, end) & mMask; mKeys[slot] != null; slot = (slot + 1) & mMask) {
+            String key = mKeys[slot];
+            if (key.length() == length && equalsIgnoreCase(key, value, start)) {
+                return mCategories[slot];
+            }
+        }
+
+        // Done
+        return 0;
+    }
+
+    private static boolean equalsIgnoreCase(String key, CharSequence value, int start) {
+        for (int idx = 0; idx < key.length(); ++idx) {
+            if (key.charAt(idx) != toLowerCase(value.charAt(start + idx))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence value, int start, int end) {
+        int hash = 0;
+        for (int idx = start; idx < end; ++idx) {
+            hash = 31 * hash + toLowerCase(value.charAt(idx));
+        }
+
+        // Spread the higher bits to the lower ones used by the mask
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char toLowerCase(char ch) {
+        return (ch >= 'A' && ch <= 'Z') ? (char) (ch + ('a' - 'A')) : ch;
+    }
+
+// MARK: - Constants
+
+    static final int INFRASTRUCTURE = 1;
+    static final int GENERIC = 1 << 1;
+    static final int COUNTRY_CODE = 1 << 2;
+    static final int LOCAL = 1 << 3;
+
+    private static final char MAX_ASCII = 0x7F;
+
+// MARK: - Variables
+
+    private final String[] mKeys;
+
+    private final byte[] mCategories;
+
+    private final int mMask;
+}
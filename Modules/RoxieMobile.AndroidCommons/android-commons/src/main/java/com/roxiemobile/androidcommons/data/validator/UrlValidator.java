@@ -19,12 +19,14 @@ package com.roxiemobile.androidcommons.data.validator;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutorService;
 
 /**
  * <p><b>URL Validation</b> routines.</p>
@@ -80,6 +82,8 @@ public class UrlValidator implements Serializable {
 
     private static final int MAX_UNSIGNED_16_BIT_INT = 0xFFFF; // port max
 
+    private static final char MAX_ASCII = 0x7F;
+
     /**
      * Allows all validly formatted schemes to pass validation instead of
      * supplying a set of valid schemes.
@@ -104,72 +108,47 @@ public class UrlValidator implements Serializable {
      */
     public static final long ALLOW_LOCAL_URLS = 1 << 3; // CHECKSTYLE IGNORE MagicNumber
 
-    /**
-     * This expression derived/taken from the BNF for URI (RFC2396).
-     */
-    private static final String URL_REGEX =
-            "^(([^:/?#]+):)?(//([^/?#]*))?([^?#]*)(\\?([^#]*))?(#(.*))?";
-    //        12            3  4          5       6   7        8 9
-    private static final Pattern URL_PATTERN = Pattern.compile(URL_REGEX);
-
-    /**
-     * Schema/Protocol (ie. http:, ftp:, file:, etc).
-     */
-    private static final int PARSE_URL_SCHEME = 2;
-
-    /**
-     * Includes hostname/ip and port number.
-     */
-    private static final int PARSE_URL_AUTHORITY = 4;
-
-    private static final int PARSE_URL_PATH = 5;
-
-    private static final int PARSE_URL_QUERY = 7;
-
-    private static final int PARSE_URL_FRAGMENT = 9;
-
-    /**
-     * Protocol scheme (e.g. http, ftp, https).
-     */
-    private static final String SCHEME_REGEX = "^\\p{Alpha}[\\p{Alnum}\\+\\-\\.]*";
-    private static final Pattern SCHEME_PATTERN = Pattern.compile(SCHEME_REGEX);
-
-    // Drop numeric, and  "+-." for now
-    // TODO does not allow for optional userinfo. 
-    // Validation of character set is done by isValidAuthority
-    private static final String AUTHORITY_CHARS_REGEX = "\\p{Alnum}\\-\\."; // allows for IPV4 but not IPV6
-    private static final String IPV6_REGEX = "[0-9a-fA-F:]+"; // do this as separate match because : could cause ambiguity with port prefix
+    // The url address is split in a single pass the same way as this expression derived/taken
+    // from the BNF for URI (RFC2396) would do it:
+    //
+    //     ^(([^:/?#]+):)?(//([^/?#]*))?([^?#]*)(\?([^#]*))?(#(.*))?
+    //       scheme          authority   path     query       fragment
+    //
+    // The components are passed on as index ranges of the url address, so no substrings are created.
+
+    // The authority is parsed the same way as this expression would match it:
+    //
+    //     (?:\[([0-9a-fA-F:]+)\]|(?:(?:userinfo@)?([\p{Alnum}\-\.]*)))(?::(\d*))?(.*)?
+    //          IPv6 address           e.g. user:pass@  hostname or IPv4     port    extra
+    //
+    // The IPv6 address is matched separately because : could cause ambiguity with port prefix.
+    // The extra part should always be empty, the code currently allows spaces.
 
     // userinfo    = *( unreserved / pct-encoded / sub-delims / ":" )
     // unreserved    = ALPHA / DIGIT / "-" / "." / "_" / "~"
     // sub-delims    = "!" / "$" / "&" / "'" / "(" / ")" / "*" / "+" / "," / ";" / "="
-    // We assume that password has the same valid chars as user info
-    private static final String USERINFO_CHARS_REGEX = "[a-zA-Z0-9%-._~!$&'()*+,;=]";
-    // since neither ':' nor '@' are allowed chars, we don't need to use non-greedy matching
-    private static final String USERINFO_FIELD_REGEX =
-            USERINFO_CHARS_REGEX + "+" + // At least one character for the name
-            "(?::" + USERINFO_CHARS_REGEX + "*)?@"; // colon and password may be absent
-    private static final String AUTHORITY_REGEX =
-            "(?:\\[("+IPV6_REGEX+")\\]|(?:(?:"+USERINFO_FIELD_REGEX+")?([" + AUTHORITY_CHARS_REGEX + "]*)))(?::(\\d*))?(.*)?";
-    //             1                          e.g. user:pass@          2                                         3       4
-    private static final Pattern AUTHORITY_PATTERN = Pattern.compile(AUTHORITY_REGEX);
-
-    private static final int PARSE_AUTHORITY_IPV6 = 1;
+    // We assume that password has the same valid chars as user info.
+    // Since neither ':' nor '@' are allowed chars, the name ends at the first of them.
+    private static final String USERINFO_CHARS = "%&'()*+,-._~!$;="; // besides ASCII letters and digits
 
-    private static final int PARSE_AUTHORITY_HOST_IP = 2; // excludes userinfo, if present
+    private static final String HOST_CHARS = "-."; // besides ASCII letters and digits, allows for IPV4 but not IPV6
 
-    private static final int PARSE_AUTHORITY_PORT = 3; // excludes leading colon
+    private static final String IPV6_CHARS = ":abcdefABCDEF"; // besides ASCII digits
 
     /**
-     * Should always be empty. The code currently allows spaces.
+     * The path is either empty or starts with '/' followed by these characters, ASCII letters or digits.
      */
-    private static final int PARSE_AUTHORITY_EXTRA = 4;
+    private static final String PATH_CHARS = "-_:@&?=+,.!/~*'%$;()";
 
-    private static final String PATH_REGEX = "^(/[-\\w:@&?=+,.!/~*'%$_;\\(\\)]*)?$";
-    private static final Pattern PATH_PATTERN = Pattern.compile(PATH_REGEX);
+    /**
+     * The query may contain any characters except of these.
+     */
+    private static final String QUERY_WHITESPACE = " \t\n\u000B\f\r";
 
-    private static final String QUERY_REGEX = "^(\\S*)$";
-    private static final Pattern QUERY_PATTERN = Pattern.compile(QUERY_REGEX);
+    /**
+     * The fragment and the authority can not contain these characters.
+     */
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
 
     /**
      * Holds the set of current validation options.
@@ -285,6 +264,38 @@ public class UrlValidator implements Serializable {
         this.authorityValidator = authorityValidator;
     }
 
+    /**
+     * Validates the URLs of the array in a single call.
+     * @param values the values to validate, <code>null</code> elements are invalid
+     * @param out the set to store the result to after clearing it, or <code>null</code> to create a new one
+     * @return the set of the indices of the valid values
+     */
+    public BitSet validateAll(CharSequence[] values, BitSet out) {
+        return validateAll(Arrays.asList(values), out);
+    }
+
+    /**
+     * Validates the URLs of the list in a single call.
+     * @param values the values to validate, <code>null</code> elements are invalid
+     * @param out the set to store the result to after clearing it, or <code>null</code> to create a new one
+     * @return the set of the indices of the valid values
+     */
+    public BitSet validateAll(List<? extends CharSequence> values, BitSet out) {
+        return BatchValidation.validateAll(values, out, value -> value != null && isValid(value, 0, value.length()));
+    }
+
+    /**
+     * Validates the URLs of the list splitting a large list into chunks on the executor,
+     * e.g. <code>ParallelWorkerThreadExecutor</code>. The list must support fast random access.
+     * @param values the values to validate, <code>null</code> elements are invalid
+     * @param out the set to store the result to after clearing it, or <code>null</code> to create a new one
+     * @param executor the executor to validate the chunks on
+     * @return the set of the indices of the valid values
+     */
+    public BitSet validateAll(List<? extends CharSequence> values, BitSet out, ExecutorService executor) {
+        return BatchValidation.validateAll(values, out, executor, value -> value != null && isValid(value, 0, value.length()));
+    }
+
     /**
      * <p>Checks if a field has a valid url address.</p>
      *
@@ -300,18 +311,91 @@ public class UrlValidator implements Serializable {
             return false;
         }
 
-        // Check the whole url address structure
-        Matcher urlMatcher = URL_PATTERN.matcher(value);
-        if (!urlMatcher.matches()) {
+        return isValid(value, 0, value.length());
+    }
+
+    /**
+     * <p>Checks if the range <code>[start, end)</code> of a value has a valid url address,
+     * so a url address can be validated without copying it out of a larger buffer.</p>
+     *
+     * @param value The value containing the url address.
+     * @param start The index of the first character of the url address.
+     * @param end The index after the last character of the url address.
+     * @return true if the url is valid.
+     * @see #isValid(String)
+     */
+    public boolean isValid(CharSequence value, int start, int end) {
+        // Split the whole url address structure
+        final int schemeEnd = indexOfAny(value, start, end, ":/?#");
+        if (schemeEnd == start || schemeEnd == end || value.charAt(schemeEnd) != ':') {
+            return false; // there is no scheme
+        }
+
+        int authorityStart = -1;
+        int authorityEnd = schemeEnd + 1;
+        if (authorityEnd + 1 < end && value.charAt(authorityEnd) == '/' && value.charAt(authorityEnd + 1) == '/') {
+            authorityStart = authorityEnd + 2;
+            authorityEnd = indexOfAny(value, authorityStart, end, "/?#");
+        }
+        final int pathEnd = indexOfAny(value, authorityEnd, end, "?#");
+        final int queryEnd = indexOfAny(value, pathEnd, end, "#");
+
+        // The fragment is the rest of the url address up to the end of a line
+        if (indexOfAny(value, queryEnd, end, LINE_TERMINATORS) < end) {
+            return false;
+        }
+
+        // Subclasses may override the String hooks only, so they are called with a copy of each part
+        if (getClass() != UrlValidator.class) {
+            return isValidParts(value, start, schemeEnd, authorityStart, authorityEnd, pathEnd, queryEnd, end);
+        }
+
+        if (!isValidScheme(value, start, schemeEnd)) {
+            return false;
+        }
+
+        if (regionEquals(value, start, schemeEnd, "file")) {// Special case - file: allows an empty authority
+            if (authorityStart >= 0) {
+                if (indexOfAny(value, authorityStart, authorityEnd, ":") < authorityEnd) { // but cannot allow trailing :
+                    return false;
+                }
+            }
+            // drop through to continue validation
+        } else { // not file:
+            // Validate the authority
+            if (authorityStart < 0 || !isValidAuthority(value, authorityStart, authorityEnd)) {
+                return false;
+            }
+        }
+
+        if (!isValidPath(value, authorityEnd, pathEnd)) {
+            return false;
+        }
+
+        if (pathEnd < queryEnd && !isValidQuery(value, pathEnd + 1, queryEnd)) {
+            return false;
+        }
+
+        if (queryEnd < end && !isValidFragment(value, queryEnd + 1, end)) {
             return false;
         }
 
-        String scheme = urlMatcher.group(PARSE_URL_SCHEME);
+        return true;
+    }
+
+    /**
+     * Validates the parts of the url address with the String hooks, the same way the String based
+     * implementation did it, so the hooks overridden by a subclass are honored.
+     * A missing authority, query or fragment is passed as <code>null</code>.
+     */
+    private boolean isValidParts(CharSequence value, int start, int schemeEnd, int authorityStart,
+            int authorityEnd, int pathEnd, int queryEnd, int end) {
+        final String scheme = value.subSequence(start, schemeEnd).toString();
         if (!isValidScheme(scheme)) {
             return false;
         }
 
-        String authority = urlMatcher.group(PARSE_URL_AUTHORITY);
+        final String authority = (authorityStart < 0) ? null : value.subSequence(authorityStart, authorityEnd).toString();
         if ("file".equals(scheme)) {// Special case - file: allows an empty authority
             if (authority != null) {
                 if (authority.contains(":")) { // but cannot allow trailing :
@@ -326,15 +410,15 @@ public class UrlValidator implements Serializable {
             }
         }
 
-        if (!isValidPath(urlMatcher.group(PARSE_URL_PATH))) {
+        if (!isValidPath(value.subSequence(authorityEnd, pathEnd).toString())) {
             return false;
         }
 
-        if (!isValidQuery(urlMatcher.group(PARSE_URL_QUERY))) {
+        if (!isValidQuery((pathEnd < queryEnd) ? value.subSequence(pathEnd + 1, queryEnd).toString() : null)) {
             return false;
         }
 
-        if (!isValidFragment(urlMatcher.group(PARSE_URL_FRAGMENT))) {
+        if (!isValidFragment((queryEnd < end) ? value.subSequence(queryEnd + 1, end).toString() : null)) {
             return false;
         }
 
@@ -355,12 +439,37 @@ public class UrlValidator implements Serializable {
             return false;
         }
 
+        return isValidScheme(scheme, 0, scheme.length());
+    }
+
+    /**
+     * Validate the scheme in the range <code>[start, end)</code> of the value.
+     * This method is called by {@link #isValid(String)}.
+     * @param value The value containing the scheme.
+     * @param start The index of the first character of the scheme.
+     * @param end The index after the last character of the scheme.
+     * @return true if valid.
+     * @see #isValidScheme(String)
+     */
+    protected boolean isValidScheme(CharSequence value, int start, int end) {
         // TODO could be removed if external schemes were checked in the ctor before being stored
-        if (!SCHEME_PATTERN.matcher(scheme).matches()) {
+        if (start == end || !isAsciiAlpha(value.charAt(start))) {
             return false;
         }
+        for (int i = start + 1; i < end; i++) {
+            char ch = value.charAt(i);
+            if (!isAsciiAlnum(ch) && ch != '+' && ch != '-' && ch != '.') {
+                return false;
+            }
+        }
 
-        if (isOff(ALLOW_ALL_SCHEMES) && !allowedSchemes.contains(scheme.toLowerCase(Locale.ENGLISH))) {
+        if (isOff(ALLOW_ALL_SCHEMES)) {
+            // The scheme is ASCII, so it is compared to the lower-case ones without a copy
+            for (String allowedScheme : allowedSchemes) {
+                if (equalsLowerCase(allowedScheme, value, start, end)) {
+                    return true;
+                }
+            }
             return false;
         }
 
@@ -372,8 +481,8 @@ public class UrlValidator implements Serializable {
      * of hostname and port.  A <code>null</code> authority value is considered invalid.
      * Note: this implementation validates the domain unless a RegexValidator was provided.
      * If a RegexValidator was supplied and it matches, then the authority is regarded
-     * as valid with no further checks, otherwise the method checks against the
-     * AUTHORITY_PATTERN and the DomainValidator (ALLOW_LOCAL_URLS)
+     * as valid with no further checks, otherwise the method checks the authority structure
+     * and the DomainValidator (ALLOW_LOCAL_URLS)
      * @param authority Authority value to validate, alllows IDN
      * @return true if authority (hostname and port) is valid.
      */
@@ -382,57 +491,32 @@ public class UrlValidator implements Serializable {
             return false;
         }
 
+        return isValidAuthority(authority, 0, authority.length());
+    }
+
+    /**
+     * Returns true if the authority in the range <code>[start, end)</code> of the value is properly formatted.
+     * This method is called by {@link #isValid(String)}.
+     * @param value The value containing the authority, alllows IDN.
+     * @param start The index of the first character of the authority.
+     * @param end The index after the last character of the authority.
+     * @return true if authority (hostname and port) is valid.
+     * @see #isValidAuthority(String)
+     */
+    protected boolean isValidAuthority(CharSequence value, int start, int end) {
         // check manual authority validation if specified
-        if (authorityValidator != null && authorityValidator.isValid(authority)) {
+        if (authorityValidator != null && authorityValidator.isValid(value, start, end)) {
             return true;
         }
-        // convert to ASCII if possible
-        final String authorityASCII = DomainValidator.unicodeToASCII(authority);
 
-        Matcher authorityMatcher = AUTHORITY_PATTERN.matcher(authorityASCII);
-        if (!authorityMatcher.matches()) {
-            return false;
-        }
-
-        // We have to process IPV6 separately because that is parsed in a different group
-        String ipv6 = authorityMatcher.group(PARSE_AUTHORITY_IPV6);
-        if (ipv6 != null) {
-            InetAddressValidator inetAddressValidator = InetAddressValidator.getInstance();
-                if (!inetAddressValidator.isValidInet6Address(ipv6)) {
-                    return false;
-                }
-        } else {
-            String hostLocation = authorityMatcher.group(PARSE_AUTHORITY_HOST_IP);
-            // check if authority is hostname or IP address:
-            // try a hostname first since that's much more likely
-            DomainValidator domainValidator = DomainValidator.getInstance(isOn(ALLOW_LOCAL_URLS));
-            if (!domainValidator.isValid(hostLocation)) {
-                // try an IPv4 address
-                InetAddressValidator inetAddressValidator = InetAddressValidator.getInstance();
-                if (!inetAddressValidator.isValidInet4Address(hostLocation)) {
-                    // isn't IPv4, so the URL is invalid
-                    return false;
-                }
-            }
-            String port = authorityMatcher.group(PARSE_AUTHORITY_PORT);
-            if (port != null && port.length() > 0) {
-                try {
-                    int iPort = Integer.parseInt(port);
-                    if (iPort < 0 || iPort > MAX_UNSIGNED_16_BIT_INT) {
-                        return false;
-                    }
-                } catch (NumberFormatException nfe) {
-                    return false; // this can happen for big numbers
-                }
+        // convert to ASCII if possible
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) > MAX_ASCII) {
+                final String authorityASCII = DomainValidator.unicodeToASCII(value.subSequence(start, end).toString());
+                return isValidAsciiAuthority(authorityASCII, 0, authorityASCII.length());
             }
         }
-
-        String extra = authorityMatcher.group(PARSE_AUTHORITY_EXTRA);
-        if (extra != null && extra.trim().length() > 0){
-            return false;
-        }
-
-        return true;
+        return isValidAsciiAuthority(value, start, end);
     }
 
     /**
@@ -445,26 +529,62 @@ public class UrlValidator implements Serializable {
             return false;
         }
 
-        if (!PATH_PATTERN.matcher(path).matches()) {
-            return false;
+        return isValidPath(path, 0, path.length());
+    }
+
+    /**
+     * Returns true if the path in the range <code>[start, end)</code> of the value is valid.
+     * This method is called by {@link #isValid(String)}.
+     * @param value The value containing the path.
+     * @param start The index of the first character of the path.
+     * @param end The index after the last character of the path.
+     * @return true if path is valid.
+     * @see #isValidPath(String)
+     */
+    protected boolean isValidPath(CharSequence value, int start, int end) {
+        if (start == end) {
+            return true;
         }
 
-        try {
-            URI uri = new URI(null,null,path,null);
-            String norm = uri.normalize().getPath();
-            if (norm.startsWith("/../") // Trying to go via the parent dir 
-             || norm.equals("/..")) {   // Trying to go to the parent dir
+        if (value.charAt(start) != '/') {
+            return false;
+        }
+        boolean has2Slashes = false;
+        for (int i = start + 1; i < end; i++) {
+            char ch = value.charAt(i);
+            if (!isAsciiAlnum(ch) && PATH_CHARS.indexOf(ch) < 0) {
                 return false;
             }
-        } catch (URISyntaxException e) {
-            return false;
+            has2Slashes |= (ch == '/' && value.charAt(i - 1) == '/');
         }
-        
-        int slash2Count = countToken("//", path);
-        if (isOff(ALLOW_2_SLASHES) && (slash2Count > 0)) {
+
+        if (isOff(ALLOW_2_SLASHES) && has2Slashes) {
             return false;
         }
 
+        if (end - start > 1 && value.charAt(start + 1) == '/') {
+            // URI takes the leading slashes for an authority, such paths are rare enough to leave them to it
+            return isValidNormalizedPath(value.subSequence(start, end).toString());
+        }
+
+        // The dot segments are resolved the same way as URI#normalize() does it
+        int segmentStart = start;
+        int depth = 0;
+        while (segmentStart < end) {
+            int segmentEnd = indexOfAny(value, segmentStart + 1, end, "/");
+            int segmentLength = segmentEnd - segmentStart - 1;
+
+            if (segmentLength == 2 && value.charAt(segmentStart + 1) == '.' && value.charAt(segmentStart + 2) == '.') {
+                if (depth == 0) {
+                    return false; // Trying to go via the parent dir or to go to the parent dir
+                }
+                depth--;
+            } else if (segmentLength > 1 || (segmentLength == 1 && value.charAt(segmentStart + 1) != '.')) {
+                depth++;
+            }
+            segmentStart = segmentEnd;
+        }
+
         return true;
     }
 
@@ -478,7 +598,20 @@ public class UrlValidator implements Serializable {
             return true;
         }
 
-        return QUERY_PATTERN.matcher(query).matches();
+        return isValidQuery(query, 0, query.length());
+    }
+
+    /**
+     * Returns true if the query in the range <code>[start, end)</code> of the value is properly formatted.
+     * This method is called by {@link #isValid(String)} if the url address has a query.
+     * @param value The value containing the query.
+     * @param start The index of the first character of the query.
+     * @param end The index after the last character of the query.
+     * @return true if query is valid.
+     * @see #isValidQuery(String)
+     */
+    protected boolean isValidQuery(CharSequence value, int start, int end) {
+        return indexOfAny(value, start, end, QUERY_WHITESPACE) == end;
     }
 
     /**
@@ -491,6 +624,19 @@ public class UrlValidator implements Serializable {
             return true;
         }
 
+        return isValidFragment(fragment, 0, fragment.length());
+    }
+
+    /**
+     * Returns true if fragments are allowed.
+     * This method is called by {@link #isValid(String)} if the url address has a fragment.
+     * @param value The value containing the fragment.
+     * @param start The index of the first character of the fragment.
+     * @param end The index after the last character of the fragment.
+     * @return true if fragment is valid.
+     * @see #isValidFragment(String)
+     */
+    protected boolean isValidFragment(CharSequence value, int start, int end) {
         return isOff(NO_FRAGMENTS);
     }
 
@@ -537,8 +683,162 @@ public class UrlValidator implements Serializable {
         return (options & flag) == 0;
     }
 
-    // Unit test access to pattern matcher
-    Matcher matchURL(String value) {
-        return URL_PATTERN.matcher(value);
+    /**
+     * Validates the authority after its conversion to ASCII. The authority may still contain
+     * non-ASCII characters if it could not be converted, those are rejected by the checks.
+     */
+    private boolean isValidAsciiAuthority(CharSequence value, int start, int end) {
+        if (indexOfAny(value, start, end, LINE_TERMINATORS) < end) {
+            return false;
+        }
+
+        int extraStart;
+        final int ipv6End = (start < end && value.charAt(start) == '[') ? skipIpv6Chars(value, start + 1, end) : start;
+        if (ipv6End > start + 1 && ipv6End < end && value.charAt(ipv6End) == ']') {
+            // We have to process IPV6 separately because that is parsed in a different way
+            InetAddressValidator inetAddressValidator = InetAddressValidator.getInstance();
+            if (!inetAddressValidator.parseInet6Address(value, start + 1, ipv6End, null)) {
+                return false;
+            }
+            // The port of an IPV6 address is skipped without validation
+            extraStart = ipv6End + 1;
+            if (extraStart < end && value.charAt(extraStart) == ':') {
+                extraStart = skipDigits(value, extraStart + 1, end);
+            }
+        } else {
+            // Skip the userinfo, if present
+            int hostStart = start;
+            int userInfoEnd = skipUserInfoChars(value, start, end);
+            if (userInfoEnd > start) {
+                if (userInfoEnd < end && value.charAt(userInfoEnd) == ':') { // colon and password may be absent
+                    userInfoEnd = skipUserInfoChars(value, userInfoEnd + 1, end);
+                }
+                if (userInfoEnd < end && value.charAt(userInfoEnd) == '@') {
+                    hostStart = userInfoEnd + 1;
+                }
+            }
+
+            int hostEnd = hostStart;
+            while (hostEnd < end && (isAsciiAlnum(value.charAt(hostEnd)) || HOST_CHARS.indexOf(value.charAt(hostEnd)) >= 0)) {
+                hostEnd++;
+            }
+            String hostLocation = value.subSequence(hostStart, hostEnd).toString();
+            // check if authority is hostname or IP address:
+            // try a hostname first since that's much more likely
+            DomainValidator domainValidator = DomainValidator.getInstance(isOn(ALLOW_LOCAL_URLS));
+            if (!domainValidator.isValid(hostLocation)) {
+                // try an IPv4 address
+                InetAddressValidator inetAddressValidator = InetAddressValidator.getInstance();
+                if (!inetAddressValidator.isValidInet4Address(hostLocation)) {
+                    // isn't IPv4, so the URL is invalid
+                    return false;
+                }
+            }
+
+            extraStart = hostEnd;
+            if (extraStart < end && value.charAt(extraStart) == ':') {
+                int portStart = extraStart + 1;
+                extraStart = skipDigits(value, portStart, end);
+
+                int port = 0;
+                for (int i = portStart; i < extraStart; i++) {
+                    port = port * 10 + (value.charAt(i) - '0'); // CHECKSTYLE IGNORE MagicNumber
+                    if (port > MAX_UNSIGNED_16_BIT_INT) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        // Only whitespace may follow
+        for (int i = extraStart; i < end; i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isValidNormalizedPath(String path) {
+        try {
+            URI uri = new URI(null,null,path,null);
+            String norm = uri.normalize().getPath();
+            if (norm.startsWith("/../") // Trying to go via the parent dir
+             || norm.equals("/..")) {   // Trying to go to the parent dir
+                return false;
+            }
+        } catch (URISyntaxException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private static int skipIpv6Chars(CharSequence value, int start, int end) {
+        while (start < end && (isAsciiDigit(value.charAt(start)) || IPV6_CHARS.indexOf(value.charAt(start)) >= 0)) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int skipUserInfoChars(CharSequence value, int start, int end) {
+        while (start < end && (isAsciiAlnum(value.charAt(start)) || USERINFO_CHARS.indexOf(value.charAt(start)) >= 0)) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int skipDigits(CharSequence value, int start, int end) {
+        while (start < end && isAsciiDigit(value.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the index of the first of the characters in the range, or its end if there is none.
+     */
+    private static int indexOfAny(CharSequence value, int start, int end, String chars) {
+        while (start < end && chars.indexOf(value.charAt(start)) < 0) {
+            start++;
+        }
+        return start;
+    }
+
+    private static boolean regionEquals(CharSequence value, int start, int end, String expected) {
+        if (expected.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) != expected.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsLowerCase(String lowerCase, CharSequence value, int start, int end) {
+        if (lowerCase.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char ch = value.charAt(i);
+            if (lowerCase.charAt(i - start) != ((ch >= 'A' && ch <= 'Z') ? (char) (ch + ('a' - 'A')) : ch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiAlpha(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isAsciiAlnum(char ch) {
+        return isAsciiAlpha(ch) || isAsciiDigit(ch);
     }
 }
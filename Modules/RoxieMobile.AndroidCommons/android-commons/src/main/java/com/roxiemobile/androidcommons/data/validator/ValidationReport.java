@@ -0,0 +1,120 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects all violations found by {@link CompiledJsonSchema#validate(com.google.gson.JsonElement, ValidationReport)}
+ * instead of stopping at the first one.
+ * <p>
+ * A report can be cleared and reused for the next document. When there are more violations than
+ * the report can hold, the validation stops and the report is marked as truncated.
+ */
+public final class ValidationReport
+{
+// MARK: - Construction
+
+    public ValidationReport() {
+        this(DEFAULT_MAX_VIOLATIONS);
+    }
+
+    public ValidationReport(int maxViolations) {
+        Guard.isTrue(maxViolations > 0, "maxViolations <= 0");
+
+        mMaxViolations = maxViolations;
+        mViolations = new ArrayList<>(Math.min(maxViolations, DEFAULT_MAX_VIOLATIONS));
+    }
+
+// MARK: - Properties
+
+    public boolean isValid() {
+        return mViolations.isEmpty();
+    }
+
+    /**
+     * Returns {@code true} if the validation stopped because the maximum number of violations was reached.
+     */
+    public boolean isTruncated() {
+        return mTruncated;
+    }
+
+    public List<Violation> getViolations() {
+        return Collections.unmodifiableList(mViolations);
+    }
+
+// MARK: - Methods
+
+    public void clear() {
+        mViolations.clear();
+        mTruncated = false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Violation violation : mViolations) {
+            builder.append(violation.getMessage()).append('\n');
+        }
+        if (mTruncated) {
+            builder.append("...\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Adds the violation and returns {@code false} if there was no room for it.
+     */
+    boolean add(String path, String message) {
+        if (mViolations.size() < mMaxViolations) {
+            mViolations.add(new Violation(path, message));
+            return true;
+        }
+
+        mTruncated = true;
+        return false;
+    }
+
+// MARK: - Inner Types
+
+    public static final class Violation
+    {
+        private Violation(String path, String message) {
+            mPath = path;
+            mMessage = message;
+        }
+
+        /**
+         * Returns the path of the invalid value, e.g. {@code $['vehicles'][2]['model']}.
+         */
+        public String getPath() {
+            return mPath;
+        }
+
+        public String getMessage() {
+            return mMessage;
+        }
+
+        @Override
+        public String toString() {
+            return mMessage;
+        }
+
+        private final String mPath;
+        private final String mMessage;
+    }
+
+// MARK: - Constants
+
+    private static final int DEFAULT_MAX_VIOLATIONS = 100;
+
+// MARK: - Variables
+
+    private final List<Violation> mViolations;
+
+    private final int mMaxViolations;
+
+    private boolean mTruncated;
+}
@@ -0,0 +1,53 @@
+package com.roxiemobile.androidcommons.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public final class LruCacheTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testEviction() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+
+        // Touch "a", so "b" becomes the eldest entry
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void testCreate() {
+        LruCache<Integer, String> cache = new LruCache<Integer, String>(10) {
+            @Override
+            protected String create(Integer key) {
+                return (key >= 0) ? String.valueOf(key) : null;
+            }
+        };
+
+        assertEquals("1", cache.get(1));
+        assertEquals("1", cache.get(1));
+        assertNull(cache.get(-1));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        cache.evictAll();
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+}
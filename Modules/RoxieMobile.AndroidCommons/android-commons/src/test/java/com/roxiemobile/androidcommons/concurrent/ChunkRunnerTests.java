@@ -0,0 +1,70 @@
+package com.roxiemobile.androidcommons.concurrent;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class ChunkRunnerTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testRunsEveryChunkOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AtomicIntegerArray counts = new AtomicIntegerArray(1000);
+            ChunkRunner.run(executor, counts.length(), 7, (start, end) -> {
+                for (int idx = start; idx < end; ++idx) {
+                    counts.incrementAndGet(idx);
+                }
+            });
+
+            for (int idx = 0; idx < counts.length(); ++idx) {
+                assertEquals(1, counts.get(idx));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCallerRunsChunksOfBackedUpExecutor() {
+        // The helpers are queued, but never started
+        List<Runnable> queued = new ArrayList<>();
+        int[] count = new int[1];
+
+        ChunkRunner.run(queued::add, 100, 10, (start, end) -> count[0] += end - start);
+        assertEquals(100, count[0]);
+    }
+
+    @Test
+    public void testLowestFailure() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ChunkRunner.run(executor, 100, 10, (start, end) -> {
+                if (start == 70) {
+                    throw new IllegalStateException("70");
+                }
+                if (start == 30) {
+                    throw new IOException("30");
+                }
+            });
+            fail("IOException expected");
+        }
+        catch (IOException e) {
+            assertEquals("30", e.getMessage());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
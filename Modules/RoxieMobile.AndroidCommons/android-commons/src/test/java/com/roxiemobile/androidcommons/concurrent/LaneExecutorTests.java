@@ -0,0 +1,149 @@
+package com.roxiemobile.androidcommons.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class LaneExecutorTests
+{
+// MARK: - Methods
+
+    @After
+    public void tearDown() throws Exception {
+        mRelease.countDown();
+        if (mExecutor != null) {
+            mExecutor.shutdown();
+            assertTrue(mExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+// MARK: - Tests
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        LaneExecutor executor = newBlockedExecutor(8, BackPressurePolicy.ABORT);
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        int[] priorities = {0, 5, -1, 5, 10, 0};
+        for (int idx = 0; idx < priorities.length; ++idx) {
+            final int taskIndex = idx;
+            executor.execute(() -> order.add(taskIndex), priorities[idx]);
+        }
+        assertEquals(priorities.length, executor.queueDepth());
+
+        mRelease.countDown();
+        executor.submit(() -> {}, Integer.MIN_VALUE).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(4, 1, 3, 0, 5, 2), order);
+        assertEquals(priorities.length + 2, executor.completedTaskCount());
+        assertTrue(executor.maxWaitTime(TimeUnit.NANOSECONDS) >= executor.averageWaitTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testCallerRuns() throws Exception {
+        LaneExecutor executor = newBlockedExecutor(1, BackPressurePolicy.CALLER_RUNS);
+        executor.execute(() -> {});
+
+        Thread[] thread = new Thread[1];
+        executor.execute(() -> thread[0] = Thread.currentThread());
+
+        assertSame(Thread.currentThread(), thread[0]);
+        assertEquals(1, executor.callerRunsCount());
+        assertEquals(1, executor.queueDepth());
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        LaneExecutor executor = newBlockedExecutor(1, BackPressurePolicy.ABORT);
+        executor.execute(() -> {});
+
+        try {
+            executor.execute(() -> {});
+            fail("RejectedExecutionException expected");
+        }
+        catch (RejectedExecutionException e) {
+            // Expected
+        }
+        assertEquals(1, executor.rejectedTaskCount());
+    }
+
+    @Test
+    public void testDiscardLowestPriority() throws Exception {
+        LaneExecutor executor = newBlockedExecutor(2, BackPressurePolicy.DISCARD_LOWEST_PRIORITY);
+
+        Future<?> low = executor.submit(() -> {}, -1);
+        Future<?> high = executor.submit(() -> {}, 1);
+        Future<?> normal = executor.submit(() -> {}, 0);
+        Future<?> lowest = executor.submit(() -> {}, -2);
+
+        assertTrue(low.isCancelled());
+        assertTrue(lowest.isCancelled());
+        assertEquals(2, executor.discardedTaskCount());
+
+        mRelease.countDown();
+        high.get(5, TimeUnit.SECONDS);
+        normal.get(5, TimeUnit.SECONDS);
+        assertFalse(normal.isCancelled());
+    }
+
+    @Test
+    public void testSharedLanes() {
+        for (TaskLane lane : TaskLane.values()) {
+            LaneExecutor executor = LaneExecutor.shared(lane);
+            assertSame(executor, LaneExecutor.shared(lane));
+
+            try {
+                executor.shutdown();
+                fail("UnsupportedOperationException expected");
+            }
+            catch (UnsupportedOperationException e) {
+                // Expected
+            }
+        }
+        assertEquals(BackPressurePolicy.DISCARD_LOWEST_PRIORITY, LaneExecutor.shared(TaskLane.PREFETCH).policy());
+    }
+
+// MARK: - Private Methods
+
+    /**
+     * Creates a single-threaded executor whose thread waits for the release, so the next tasks stay queued.
+     */
+    private LaneExecutor newBlockedExecutor(int capacity, BackPressurePolicy policy) throws Exception {
+        mExecutor = new LaneExecutor("TestLaneExecutor", 1, 0, capacity, policy);
+
+        CountDownLatch started = new CountDownLatch(1);
+        mExecutor.execute(() -> {
+            started.countDown();
+            try {
+                mRelease.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Done
+        return mExecutor;
+    }
+
+// MARK: - Variables
+
+    private final CountDownLatch mRelease = new CountDownLatch(1);
+
+    private LaneExecutor mExecutor;
+}
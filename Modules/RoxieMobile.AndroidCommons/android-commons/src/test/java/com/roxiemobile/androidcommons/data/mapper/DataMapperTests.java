@@ -0,0 +1,163 @@
+package com.roxiemobile.androidcommons.data.mapper;
+
+import com.google.gson.JsonSyntaxException;
+import com.roxiemobile.androidcommons.data.Constants.Charsets;
+import com.roxiemobile.androidcommons.data.model.ParkingModel;
+import com.roxiemobile.androidcommons.data.model.VehicleModel;
+import com.roxiemobile.androidcommons.diagnostics.CheckException;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.androidcommons.logging.Logger.LogLevel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class DataMapperTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testStreamArray() throws Exception {
+        String json = "[{\"model\": \"Mini\", \"color\": \"red\"}, {\"model\": \"Beetle\", \"color\": \"blue\"}]";
+
+        JsonArrayIterator<VehicleModel> iterator = DataMapper.streamArray(new StringReader(json), VehicleModel.class);
+        try {
+            assertTrue(iterator.hasNext());
+            assertEquals("Mini", iterator.next().mModel);
+            assertTrue(iterator.hasNext());
+            assertEquals("blue", iterator.next().mColor);
+            assertFalse(iterator.hasNext());
+        }
+        finally {
+            iterator.close();
+        }
+    }
+
+    @Test
+    public void testStreamArrayWithAction() {
+        String json = "[{\"model\": \"Mini\", \"color\": \"red\"}, {\"model\": \"Beetle\", \"color\": \"blue\"}]";
+        List<String> models = new ArrayList<>();
+
+        DataMapper.streamArray(new StringReader(json), VehicleModel.class, vehicle -> models.add(vehicle.mModel));
+        assertEquals(2, models.size());
+        assertEquals("Beetle", models.get(1));
+
+        models.clear();
+        DataMapper.streamArray(new StringReader("null"), VehicleModel.class, vehicle -> models.add(vehicle.mModel));
+        assertTrue(models.isEmpty());
+    }
+
+    @Test
+    public void testStreamArrayPostValidation() {
+        Logger.shared().logLevel(LogLevel.Suppress);
+        String json = "[{\"model\": \"Mini\", \"color\": \"red\"}, {\"model\": \"Beetle\"}]";
+        List<String> models = new ArrayList<>();
+
+        try {
+            DataMapper.streamArray(new StringReader(json), VehicleModel.class, vehicle -> models.add(vehicle.mModel));
+            fail("JsonSyntaxException is not thrown");
+        }
+        catch (JsonSyntaxException e) {
+            // Expected exception
+        }
+
+        // The valid element is delivered before the invalid one is read
+        assertEquals(1, models.size());
+    }
+
+    @Test
+    public void testByteStreams() {
+        VehicleModel vehicle = new VehicleModel();
+        vehicle.mModel = "\u0160koda \uD83D\uDE97";
+        vehicle.mColor = "white";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataMapper.toJson(vehicle, out);
+        byte[] bytes = out.toByteArray();
+        assertArrayEquals(DataMapper.toJson(vehicle).getBytes(Charsets.UTF_8), bytes);
+
+        VehicleModel result = DataMapper.fromJson(bytes, VehicleModel.class);
+        assertEquals(vehicle.mModel, result.mModel);
+        assertEquals(vehicle.mColor, result.mColor);
+
+        out.reset();
+        DataMapper.writeTo(vehicle, VehicleModel.class, out);
+        assertArrayEquals(bytes, out.toByteArray());
+
+        result = DataMapper.fromJson(new ByteArrayInputStream(bytes), VehicleModel.class);
+        assertEquals(vehicle.mModel, result.mModel);
+        assertArrayEquals(bytes, DataMapper.toByteArray(DataMapper.toJsonTree(vehicle)));
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        DataMapper.warmUp(VehicleModel.class, ParkingModel.class).get(10, TimeUnit.SECONDS);
+        assertEquals("Mini", DataMapper.fromJson("{\"model\": \"Mini\", \"color\": \"red\"}", VehicleModel.class).mModel);
+    }
+
+    @Test
+    public void testPostValidationModes() {
+        Logger.shared().logLevel(LogLevel.Suppress);
+        String valid = newParkingJson(200, -1);
+        String invalid = newParkingJson(200, 150);
+
+        for (PostValidationMode mode : PostValidationMode.values()) {
+            ParkingModel parking = DataMapper.fromJson(valid, ParkingModel.class, mode);
+            assertEquals(200, parking.mVehicles.length);
+
+            try {
+                DataMapper.fromJson(invalid, ParkingModel.class, mode);
+                fail("JsonSyntaxException is not thrown in " + mode + " mode");
+            }
+            catch (JsonSyntaxException e) {
+                // The invalid vehicle is reported rather than its parking
+                assertTrue(e.getCause() instanceof CheckException);
+                assertEquals(expectedMessage(invalid), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testStreamArrayMalformed() {
+        try {
+            DataMapper.streamArray(new StringReader("{\"model\": \"Mini\"}"), VehicleModel.class, vehicle -> {});
+            fail("JsonSyntaxException is not thrown");
+        }
+        catch (JsonSyntaxException e) {
+            // Expected exception
+        }
+    }
+
+// MARK: - Private Methods
+
+    private static String newParkingJson(int count, int invalidIndex) {
+        StringBuilder builder = new StringBuilder("{\"watcher\": \"John\", \"vehicles\": [");
+        for (int idx = 0; idx < count; ++idx) {
+            builder.append((idx > 0) ? ", " : "")
+                    .append("{\"model\": \"Model ").append(idx).append('"')
+                    .append((idx != invalidIndex) ? ", \"color\": \"red\"}" : "}");
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static String expectedMessage(String json) {
+        try {
+            DataMapper.fromJson(json, ParkingModel.class);
+            return null;
+        }
+        catch (JsonSyntaxException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.roxiemobile.androidcommons.data.mapper.adapter;
+
+import com.google.gson.JsonSyntaxException;
+import com.roxiemobile.androidcommons.data.model.PostValidatable;
+import com.roxiemobile.androidcommons.diagnostics.CheckException;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class DeferredPostValidationTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testValidateOnWorkerOfSameExecutor() throws Exception {
+        // The only worker runs the validation, so nobody else picks up the chunks
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger count = new AtomicInteger();
+            DeferredPostValidation validation = collect(INSTANCE_COUNT, index -> count.incrementAndGet());
+
+            Future<?> future = executor.submit(() -> validation.validate(executor));
+            future.get(5, TimeUnit.SECONDS);
+            assertEquals(INSTANCE_COUNT, count.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEarliestFailure() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DeferredPostValidation validation = collect(INSTANCE_COUNT, index -> {
+                if (index == 10) {
+                    throw new CheckException("10");
+                }
+                if (index == INSTANCE_COUNT - 1) {
+                    throw new IllegalStateException("last");
+                }
+            });
+
+            validation.validate(executor);
+            fail("JsonSyntaxException expected");
+        }
+        catch (JsonSyntaxException e) {
+            assertEquals("10", e.getMessage());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+// MARK: - Private Methods
+
+    private static DeferredPostValidation collect(int count, Validation validation) {
+        DeferredPostValidation scope = DeferredPostValidation.begin();
+        try {
+            for (int idx = 0; idx < count; ++idx) {
+                final int index = idx;
+                DeferredPostValidation.offer(new PostValidatable() {
+                    @Override
+                    public boolean isShouldPostValidate() {
+                        return true;
+                    }
+
+                    @Override
+                    public void validate() {
+                        validation.validate(index);
+                    }
+                });
+            }
+        }
+        finally {
+            scope.end();
+        }
+
+        // Done
+        return scope;
+    }
+
+// MARK: - Inner Types
+
+    private interface Validation
+    {
+        void validate(int index);
+    }
+
+// MARK: - Constants
+
+    private static final int INSTANCE_COUNT = 256;
+}
@@ -0,0 +1,90 @@
+package com.roxiemobile.androidcommons.data.mapper.adapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+import com.roxiemobile.androidcommons.data.CommonKeys;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public final class EnumTypeAdapterFactoryTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testReadWrite() {
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new EnumTypeAdapterFactory()).create();
+
+        assertEquals(Color.RED, gson.fromJson("\"red\"", Color.class));
+        assertEquals(Color.RED, gson.fromJson("\"scarlet\"", Color.class));
+        assertEquals(Color.GREEN, gson.fromJson("\"GREEN\"", Color.class));
+        assertEquals(Color.UNKNOWN, gson.fromJson("\"purple\"", Color.class));
+        assertNull(gson.fromJson("null", Color.class));
+
+        assertEquals("\"red\"", gson.toJson(Color.RED));
+        assertEquals("\"GREEN\"", gson.toJson(Color.GREEN));
+    }
+
+    @Test
+    public void testConverter() {
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new EnumTypeAdapterFactory()).create();
+        @SuppressWarnings("unchecked")
+        EnumStringConverter<Color> converter = (EnumStringConverter<Color>) gson.getAdapter(Color.class);
+
+        assertEquals(Arrays.asList(Color.RED, Color.GREEN), converter.getValuesForKeys(Arrays.asList("crimson", "GREEN")));
+        assertEquals(Arrays.asList("red", "GREEN"), converter.getKeysForValues(Arrays.asList(Color.RED, Color.GREEN)));
+        assertNull(converter.getValueForKey("blue"));
+    }
+
+    @Test
+    public void testCollidingNames() {
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new EnumTypeAdapterFactory()).create();
+
+        // "Aa" and "BB" have the same hash code
+        assertEquals(Pair.AA, gson.fromJson("\"Aa\"", Pair.class));
+        assertEquals(Pair.BB, gson.fromJson("\"BB\"", Pair.class));
+        assertNull(gson.fromJson("\"Ab\"", Pair.class));
+        assertEquals("\"BB\"", gson.toJson(Pair.BB));
+    }
+
+    @Test
+    public void testNameTableWithCollisions() {
+        Map<String, Integer> map = new HashMap<>();
+        // "Aa", "BB" and "C#" share a hash code, so they collide in any table size
+        String[] names = {"Aa", "BB", "C#", "red", "green", "blue"};
+        for (int idx = 0; idx < names.length; ++idx) {
+            map.put(names[idx], idx);
+        }
+
+        EnumTypeAdapterFactory.NameTable<Integer> table = new EnumTypeAdapterFactory.NameTable<>(map);
+        for (int idx = 0; idx < names.length; ++idx) {
+            assertEquals(names[idx], Integer.valueOf(idx), table.get(names[idx]));
+        }
+        assertNull(table.get("Ab"));
+        assertNull(table.get(null));
+    }
+
+// MARK: - Inner Types
+
+    private enum Color {
+        @SerializedName(value = "red", alternate = {"scarlet", "crimson"})
+        RED,
+        GREEN,
+        @SerializedName(CommonKeys.State.UNDEFINED)
+        UNKNOWN
+    }
+
+    private enum Pair {
+        @SerializedName("Aa")
+        AA,
+        @SerializedName("BB")
+        BB
+    }
+}
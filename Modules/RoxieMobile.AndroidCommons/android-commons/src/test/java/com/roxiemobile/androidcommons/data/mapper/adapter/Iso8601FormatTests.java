@@ -0,0 +1,150 @@
+package com.roxiemobile.androidcommons.data.mapper.adapter;
+
+import com.roxiemobile.androidcommons.data.Constants.DateFormat;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class Iso8601FormatTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testFormatMatchesSimpleDateFormat() {
+        Random random = new Random(42);
+
+        for (String zoneId : ZONE_IDS) {
+            TimeZone zone = TimeZone.getTimeZone(zoneId);
+            SimpleDateFormat dateFormat = newFormatter(DateFormat.DATE, zone);
+            SimpleDateFormat timestampFormat = newFormatter(DateFormat.TIMESTAMP_ISO8601, zone);
+
+            for (int idx = 0; idx < ITERATIONS; ++idx) {
+                long millis = randomMillis(random);
+                Date date = new Date(millis);
+
+                assertEquals(dateFormat.format(date), Iso8601Format.formatDate(millis, zone));
+                assertEquals(timestampFormat.format(date), Iso8601Format.formatTimestamp(millis, zone));
+            }
+        }
+    }
+
+    @Test
+    public void testParseMatchesSimpleDateFormat() throws Exception {
+        Random random = new Random(42);
+
+        for (String zoneId : ZONE_IDS) {
+            TimeZone zone = TimeZone.getTimeZone(zoneId);
+            SimpleDateFormat dateFormat = newFormatter(DateFormat.DATE, zone);
+            SimpleDateFormat timestampFormat = newFormatter(DateFormat.TIMESTAMP_ISO8601, zone);
+
+            for (int idx = 0; idx < ITERATIONS; ++idx) {
+                Date date = new Date(randomMillis(random));
+
+                String dateValue = dateFormat.format(date);
+                assertParsedDate(dateValue, dateFormat.parse(dateValue).getTime(), Iso8601Format.parseDate(dateValue, zone));
+
+                String timestampValue = timestampFormat.format(date);
+                assertEquals(timestampValue, timestampFormat.parse(timestampValue).getTime(),
+                        Iso8601Format.parseTimestamp(timestampValue));
+            }
+        }
+    }
+
+    @Test
+    public void testParseDateAcrossTransitions() throws Exception {
+        for (String zoneId : ZONE_IDS) {
+            TimeZone zone = TimeZone.getTimeZone(zoneId);
+            SimpleDateFormat dateFormat = newFormatter(DateFormat.DATE, zone);
+            SimpleDateFormat utcFormat = newFormatter(DateFormat.DATE, TimeZone.getTimeZone("UTC"));
+
+            int fallbacks = 0;
+
+            // Every day of 1970..2040, including midnights skipped by daylight saving time
+            for (long day = 0; day < DAYS; ++day) {
+                String value = utcFormat.format(new Date(day * 86400000L));
+                long millis = Iso8601Format.parseDate(value, zone);
+
+                assertParsedDate(zoneId + " " + value, dateFormat.parse(value).getTime(), millis);
+                fallbacks += (millis == Iso8601Format.INVALID) ? 1 : 0;
+            }
+
+            // Only the days around transitions are left to the fallback
+            assertTrue(zoneId, fallbacks < DAYS / 50);
+        }
+    }
+
+    @Test
+    public void testParseZoneDesignators() {
+        SimpleDateFormat timestampFormat = newFormatter(DateFormat.TIMESTAMP_ISO8601, TimeZone.getTimeZone("UTC"));
+
+        for (String value : new String[]{"2017-02-01T10:00:00Z", "2017-02-01T13:00:00+0300", "2017-02-01T05:30:00-0430",
+                "2017-02-01T10:00:00-0000", "2017-02-01T13:00:00+03:00", "2017-02-01T05:30:00-04:30",
+                "2017-02-01T10:00:00-00:00", "2017-02-01T10:00:00z", "2017-02-01T10:00:00+03"}) {
+            long expected;
+            try {
+                // The same way TimestampAdapter falls back to the formatter
+                expected = timestampFormat.parse(value.replace("Z", "+0000")).getTime();
+            }
+            catch (ParseException e) {
+                expected = Iso8601Format.INVALID;
+            }
+
+            // The values rejected by the formatter must be left to it, so they keep failing
+            assertEquals(value, expected, Iso8601Format.parseTimestamp(value));
+        }
+    }
+
+    @Test
+    public void testNonCanonicalValuesAreLeftToFallback() {
+        TimeZone zone = TimeZone.getTimeZone("UTC");
+
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseDate("2017-02-30", zone));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseDate("2017-2-3", zone));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseDate("1500-01-01", zone));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseDate("2017-01-01T10:00:00Z", zone));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseTimestamp("2017-01-01T24:00:00Z"));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseTimestamp("2017-01-01T10:00:00.123Z"));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseTimestamp("2017-01-01T10:00:00"));
+        assertEquals(Iso8601Format.INVALID, Iso8601Format.parseTimestamp("2017-01-01T10:00:00+3"));
+    }
+
+// MARK: - Private Methods
+
+    private static void assertParsedDate(String message, long expected, long actual) {
+        if (actual != Iso8601Format.INVALID) {
+            assertEquals(message, expected, actual);
+        }
+    }
+
+    private static SimpleDateFormat newFormatter(String pattern, TimeZone zone) {
+        SimpleDateFormat formatter = new SimpleDateFormat(pattern, Locale.ENGLISH);
+        formatter.setTimeZone(zone);
+        return formatter;
+    }
+
+    private static long randomMillis(Random random) {
+        // Years 1600..2400, whole seconds
+        long min = -11676096000L;
+        long max = 13569465600L;
+        return (min + (long) (random.nextDouble() * (max - min))) * 1000L;
+    }
+
+// MARK: - Constants
+
+    private static final int ITERATIONS = 5000;
+
+    private static final int DAYS = 71 * 366;
+
+    private static final String[] ZONE_IDS = {
+            "UTC", "Europe/Moscow", "America/New_York", "America/Sao_Paulo", "Asia/Kolkata", "Australia/Lord_Howe"
+    };
+}
@@ -0,0 +1,98 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.data.validator.DomainValidator.ArrayType;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class CachingValidatorTests
+{
+// MARK: - Methods
+
+    @After
+    public void tearDown() {
+        DomainValidator.clearTLDOverrides();
+    }
+
+// MARK: - Tests
+
+    @Test
+    public void testCounters() {
+        CachingUrlValidator validator = new CachingUrlValidator(UrlValidator.getInstance(), 2);
+
+        assertTrue(validator.isValid("http://www.google.com/"));
+        assertTrue(validator.isValid("http://www.google.com/"));
+        assertFalse(validator.isValid("http://www.google.comm/"));
+        assertFalse(validator.isValid("http://www.google.comm/"));
+        assertTrue(validator.isValid("https://www.google.com/"));
+        assertFalse(validator.isValid(null));
+
+        assertEquals(2, validator.hitCount());
+        assertEquals(3, validator.missCount());
+        assertEquals(1, validator.evictionCount());
+        assertEquals(2, validator.size());
+        assertEquals(0.4, validator.hitRatio(), 1e-9);
+
+        assertTrue(validator.isValid("http://www.google.com/"));
+        assertEquals(4, validator.missCount());
+    }
+
+    @Test
+    public void testTldOverrides() {
+        DomainValidator.clearTLDOverrides();
+        CachingDomainValidator validator = new CachingDomainValidator(DomainValidator.getInstance(), 100);
+
+        assertFalse(validator.isValid("host.internal"));
+        assertTrue(validator.isValid("example.com"));
+        assertFalse(validator.isValid("host.internal"));
+        assertEquals(1, validator.hitCount());
+
+        DomainValidator.clearTLDOverrides();
+        DomainValidator.updateTLDOverride(ArrayType.GENERIC_PLUS, new String[]{"internal"});
+        DomainValidator.updateTLDOverride(ArrayType.GENERIC_MINUS, new String[]{"com"});
+
+        // The overrides can only be changed after they were cleared, which needs the cache to be dropped as well
+        assertFalse(validator.isValid("host.internal"));
+        validator.evictAll();
+
+        assertTrue(validator.isValid("host.internal"));
+        assertFalse(validator.isValid("example.com"));
+        assertEquals(2, validator.hitCount());
+        assertEquals(2, validator.size());
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        final CachingDomainValidator validator = new CachingDomainValidator(DomainValidator.getInstance(), 1000);
+        assertEquals(1000, validator.maxSize());
+
+        final AtomicInteger validCount = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int idx = 0; idx < threads.length; ++idx) {
+            threads[idx] = new Thread(() -> {
+                for (int count = 0; count < 2000; ++count) {
+                    if (validator.isValid("host" + count + ".example.com")) {
+                        validCount.incrementAndGet();
+                    }
+                }
+            });
+            threads[idx].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Every segment is bounded on its own, the counters cover all of them
+        assertEquals(8000, validCount.get());
+        assertTrue(validator.size() <= 1000);
+        assertEquals(8000, validator.hitCount() + validator.missCount());
+        // Values missed by two threads at once are put twice, but evicted only once
+        assertTrue(validator.evictionCount() <= validator.missCount() - validator.size());
+    }
+}
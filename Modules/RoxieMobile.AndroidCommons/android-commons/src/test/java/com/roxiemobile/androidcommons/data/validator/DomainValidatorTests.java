@@ -0,0 +1,206 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.data.validator.DomainValidator.ArrayType;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class DomainValidatorTests
+{
+// MARK: - Methods
+
+    @After
+    public void tearDown() {
+        DomainValidator.clearTLDOverrides();
+    }
+
+// MARK: - Tests
+
+    @Test
+    public void testTldCategories() {
+        DomainValidator validator = DomainValidator.getInstance();
+
+        for (String tld : DomainValidator.getTLDEntries(ArrayType.GENERIC_RO)) {
+            assertTrue(tld, validator.isValidGenericTld(tld));
+            assertTrue(tld, validator.isValidGenericTld("." + tld.toUpperCase(Locale.ENGLISH)));
+            assertTrue(tld, validator.isValidTld(tld));
+        }
+        for (String tld : DomainValidator.getTLDEntries(ArrayType.COUNTRY_CODE_RO)) {
+            assertTrue(tld, validator.isValidCountryCodeTld(tld));
+            assertFalse(tld, validator.isValidLocalTld(tld));
+        }
+
+        assertTrue(validator.isValidInfrastructureTld("ARPA"));
+        assertTrue(validator.isValidLocalTld("localhost"));
+        assertFalse(validator.isValidTld("localhost"));
+        assertTrue(DomainValidator.getInstance(true).isValidTld("localhost"));
+
+        assertFalse(validator.isValidTld("comm"));
+        assertFalse(validator.isValidTld(""));
+        assertFalse(validator.isValidTld("."));
+        assertFalse(validator.isValidGenericTld("com."));
+        assertFalse(validator.isValidGenericTld("cöm"));
+    }
+
+    @Test
+    public void testDomains() {
+        DomainValidator validator = DomainValidator.getInstance();
+
+        assertTrue(validator.isValid("www.example.com"));
+        assertTrue(validator.isValid("WWW.EXAMPLE.COM."));
+        assertTrue(validator.isValid("example.xn--p1ai"));
+        assertTrue(validator.isValid("пример.рф"));
+        assertFalse(validator.isValid("example.comm"));
+        assertFalse(validator.isValid("example"));
+        assertFalse(validator.isValid("example..com"));
+        assertTrue(DomainValidator.getInstance(true).isValid("localhost"));
+    }
+
+    @Test
+    public void testOverrides() {
+        DomainValidator.clearTLDOverrides();
+        DomainValidator.updateTLDOverride(ArrayType.GENERIC_PLUS, new String[]{"Internal"});
+        DomainValidator.updateTLDOverride(ArrayType.GENERIC_MINUS, new String[]{"com"});
+        DomainValidator.updateTLDOverride(ArrayType.COUNTRY_CODE_MINUS, new String[]{"ch"});
+
+        DomainValidator validator = DomainValidator.getInstance();
+        assertTrue(validator.isValid("host.INTERNAL"));
+        assertFalse(validator.isValid("example.com"));
+        assertFalse(validator.isValidCountryCodeTld("ch"));
+        assertTrue(validator.isValidGenericTld("org"));
+
+        DomainValidator.clearTLDOverrides();
+        assertTrue(validator.isValid("example.com"));
+        assertFalse(validator.isValid("host.internal"));
+    }
+
+    @Test
+    public void testUpdateAfterGetInstance() {
+        DomainValidator.updateTLDOverride(ArrayType.GENERIC_PLUS, new String[]{"internal"});
+        DomainValidator.getInstance(true);
+
+        try {
+            DomainValidator.updateTLDOverride(ArrayType.GENERIC_PLUS, new String[]{"other"});
+            fail("IllegalStateException expected");
+        }
+        catch (IllegalStateException e) {
+            // Expected
+        }
+        assertEquals(1, DomainValidator.getTLDEntries(ArrayType.GENERIC_PLUS).length);
+        assertTrue(DomainValidator.getInstance().isValid("host.internal"));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int idx = 0; idx < THREAD_COUNT; ++idx) {
+                final boolean allowLocal = (idx % 2 == 0);
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int validCount = 0;
+                        for (int count = 0; count < 10000; ++count) {
+                            DomainValidator validator = DomainValidator.getInstance(allowLocal);
+                            assertSame(validator, DomainValidator.getInstance(allowLocal));
+                            if (validator.isValid("host" + count + ".example.com") && !validator.isValid("example.comm")) {
+                                validCount++;
+                            }
+                        }
+                        return validCount;
+                    }
+                }));
+            }
+
+            for (Future<Integer> future : futures) {
+                assertEquals(10000, future.get().intValue());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMatchesRegexImplementation() {
+        for (boolean allowLocal : new boolean[]{false, true}) {
+            DomainValidator validator = DomainValidator.getInstance(allowLocal);
+
+            for (String domain : DOMAINS) {
+                assertSameVerdict(validator, allowLocal, domain);
+            }
+
+            Random random = new Random(allowLocal ? 1 : 0);
+            for (int idx = 0; idx < 100000; ++idx) {
+                StringBuilder builder = new StringBuilder();
+                for (int count = random.nextInt(8); count >= 0; --count) {
+                    builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+                }
+                assertSameVerdict(validator, allowLocal, builder.toString());
+            }
+        }
+    }
+
+// MARK: - Private Methods
+
+    private static void assertSameVerdict(DomainValidator validator, boolean allowLocal, String domain) {
+        String ascii = DomainValidator.unicodeToASCII(domain);
+        Matcher matcher = DOMAIN_NAME_PATTERN.matcher(ascii);
+
+        boolean validSyntax = ascii.length() <= 253 && (matcher.matches() || DOMAIN_LABEL_PATTERN.matcher(ascii).matches());
+        assertEquals(domain, validSyntax, validator.isValidDomainSyntax(domain));
+
+        boolean valid = ascii.length() <= 253 && (matcher.matches()
+                ? validator.isValidTld(matcher.group(1))
+                : allowLocal && DOMAIN_LABEL_PATTERN.matcher(ascii).matches());
+        assertEquals(domain, valid, validator.isValid(domain));
+    }
+
+// MARK: - Constants
+
+    private static final int THREAD_COUNT = 8;
+
+    // The regular expressions the single-pass parser replaced
+    private static final String DOMAIN_LABEL_REGEX = "\\p{Alnum}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
+    private static final String TOP_LABEL_REGEX = "\\p{Alpha}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
+
+    private static final Pattern DOMAIN_LABEL_PATTERN = Pattern.compile(DOMAIN_LABEL_REGEX);
+    private static final Pattern DOMAIN_NAME_PATTERN =
+            Pattern.compile("(?:" + DOMAIN_LABEL_REGEX + "\\.)+(" + TOP_LABEL_REGEX + ")\\.?");
+
+    private static final String LONG_LABEL = new String(new char[63]).replace('\0', 'a');
+
+    private static final String[] DOMAINS = {
+            "", ".", "..", "a", "a.", ".a", "a.b", "www.example.com", "WWW.EXAMPLE.COM.", "example.com..", "1.com",
+            "example.1com", "example.c1m", "-a.com", "a-.com", "a--b.com", "a_b.com", "a b.com", "a.com\n", "localhost",
+            "localhost.", "host.localhost", "LOCALHOST", "1host", "-host", LONG_LABEL + ".com", LONG_LABEL + "a.com",
+            LONG_LABEL + "." + LONG_LABEL + "." + LONG_LABEL + "." + LONG_LABEL.substring(4) + ".com",
+            LONG_LABEL + "." + LONG_LABEL + "." + LONG_LABEL + "." + LONG_LABEL.substring(5) + ".com",
+            "пример.рф", "пример.рф.", "пример。рф", "пример．рф｡", "пример.xn--p1ai", "example.рф", "ПРИМЕР.РФ",
+            "пример", "пример.", "-пример.рф", "при мер.рф", "münchen.de", "ＥＸＡＭＰＬＥ.com", "a\u00AD.com", "\u00AD.com",
+            "пример..рф", "a.пример-.рф", "例子.中国", "例子。中国。", "a.\u3002com"
+    };
+
+    private static final String[] TOKENS = {
+            "a", "Z", "9", "0", "com", "COM", "org", "ru", "рф", "пример", "ü", "例子", "localhost", "xn--p1ai", "xn--",
+            "-", "_", " ", ".", ".", ".", "\u3002", "\uFF0E", "\uFF61", "\u00AD", "ＡＢ", LONG_LABEL
+    };
+}
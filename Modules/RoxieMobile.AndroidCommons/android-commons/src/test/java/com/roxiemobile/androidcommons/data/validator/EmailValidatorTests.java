@@ -0,0 +1,107 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.concurrent.ParallelWorkerThreadExecutor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class EmailValidatorTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testValidAndInvalid() {
+        EmailValidator validator = EmailValidator.shared();
+
+        assertTrue(validator.isValid("john.doe+tag@example.com"));
+        assertTrue(validator.isValid("a@b"));
+        assertTrue(validator.isValid("x_%-@sub-.domain-.c0"));
+
+        assertFalse(validator.isValid(null));
+        assertFalse(validator.isValid(""));
+        assertFalse(validator.isValid("@example.com"));
+        assertFalse(validator.isValid("john@"));
+        assertFalse(validator.isValid("john@-example.com"));
+        assertFalse(validator.isValid("john@example..com"));
+        assertFalse(validator.isValid("john@example.com."));
+        assertFalse(validator.isValid("john@example.com\n"));
+        assertFalse(validator.isValid("jöhn@example.com"));
+    }
+
+    @Test
+    public void testMatchesRegex() {
+        assertMatchesRegex(repeat('a', 256) + "@b");
+        assertMatchesRegex(repeat('a', 257) + "@b");
+        assertMatchesRegex("a@" + repeat('b', 65));
+        assertMatchesRegex("a@" + repeat('b', 66));
+        assertMatchesRegex("a@b." + repeat('c', 26));
+        assertMatchesRegex("a@b." + repeat('c', 27));
+        assertMatchesRegex("a@b." + repeat('c', 26) + ".d");
+
+        Random random = new Random(42);
+        for (int idx = 0; idx < 200000; ++idx) {
+            StringBuilder builder = new StringBuilder();
+            for (int length = random.nextInt(24); length > 0; --length) {
+                // Label lengths near the limits are reached by repeating a character
+                char ch = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                builder.append((random.nextInt(40) == 0) ? repeat(ch, random.nextInt(70)) : String.valueOf(ch));
+            }
+            assertMatchesRegex(builder.toString());
+        }
+    }
+
+    @Test
+    public void testValidateAll() {
+        List<String> values = new ArrayList<>();
+        for (int idx = 0; idx < 20000; ++idx) {
+            values.add((idx % 3 == 0) ? "user" + idx + "@example.com" : ((idx % 3 == 1) ? "user" + idx : null));
+        }
+
+        BitSet expected = new BitSet();
+        for (int idx = 0; idx < values.size(); ++idx) {
+            if (EmailValidator.shared().isValid(values.get(idx))) {
+                expected.set(idx);
+            }
+        }
+
+        BitSet out = new BitSet();
+        out.set(values.size() + 10);
+
+        assertEquals(expected, EmailValidator.shared().validateAll(values, out));
+        assertEquals(expected, EmailValidator.shared().validateAll(values.toArray(new CharSequence[0]), null));
+        assertEquals(expected, EmailValidator.shared().validateAll(values, out, ParallelWorkerThreadExecutor.shared()));
+        assertTrue(new UrlValidator().validateAll(values, null).isEmpty());
+        assertEquals(values.size() / 3 + 1, InetAddressValidator.getInstance().validateAll(
+                Collections.nCopies(values.size() / 3 + 1, "127.0.0.1"), null, ParallelWorkerThreadExecutor.shared()).cardinality());
+    }
+
+// MARK: - Private Methods
+
+    private static void assertMatchesRegex(String value) {
+        assertEquals(value, EMAIL_PATTERN.matcher(value).matches(), EmailValidator.shared().isValid(value));
+    }
+
+    private static String repeat(char ch, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int idx = 0; idx < count; ++idx) {
+            builder.append(ch);
+        }
+        return builder.toString();
+    }
+
+// MARK: - Constants
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EmailValidator.EMAIL_ADDRESS_REGEX);
+
+    private static final String ALPHABET = "aZ9.@-_%+.@-\n ö\u0080";
+}
@@ -0,0 +1,176 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class InetAddressValidatorTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testParseInet4Address() {
+        InetAddressValidator validator = InetAddressValidator.getInstance();
+
+        assertEquals(0xC0A80001L, validator.parseInet4Address("192.168.0.1"));
+        assertEquals(0xFFFFFFFFL, validator.parseInet4Address("255.255.255.255"));
+        assertEquals(0L, validator.parseInet4Address("0.0.0.0"));
+        assertEquals(0x7F000001L, validator.parseInet4Address("[127.0.0.1]", 1, 10));
+
+        assertEquals(-1L, validator.parseInet4Address("256.0.0.1"));
+        assertEquals(-1L, validator.parseInet4Address("01.0.0.1"));
+        assertEquals(-1L, validator.parseInet4Address("1.0.0"));
+        assertEquals(-1L, validator.parseInet4Address("1.0.0.1."));
+        assertEquals(-1L, validator.parseInet4Address("1.0.0.1\n"));
+        assertFalse(validator.isValidInet4Address(null));
+    }
+
+    @Test
+    public void testParseInet6Address() throws Exception {
+        InetAddressValidator validator = InetAddressValidator.getInstance();
+
+        for (String value : new String[]{"::", "::1", "1::", "2001:db8::ff00:42:8329", "2001:DB8:0:0:0:FF00:42:8329",
+                "::ffff:192.168.0.1", "1:2:3:4:5:6:1.2.3.4", "1:2:3:4:5:6:7::", "::2:3:4:5:6:7:8", "fe80::1:0:0:1"}) {
+            long[] address = new long[2];
+            assertTrue(value, validator.parseInet6Address(value, address));
+
+            ByteBuffer expected = ByteBuffer.wrap(InetAddress.getByName(value).getAddress());
+            if (expected.capacity() == 4) {
+                // Java takes an IPv4-mapped address for an IPv4 one
+                assertArrayEquals(value, new long[]{0, 0xFFFF00000000L | (expected.getInt() & 0xFFFFFFFFL)}, address);
+            }
+            else {
+                assertArrayEquals(value, new long[]{expected.getLong(), expected.getLong()}, address);
+            }
+        }
+
+        // Integer.parseInt accepted a sign and non-ASCII digits in the groups
+        assertFalse(validator.isValidInet6Address("+1::"));
+        assertFalse(validator.isValidInet6Address("-0::"));
+        assertFalse(validator.isValidInet6Address("１::"));
+        assertFalse(validator.isValidInet6Address(null));
+        assertFalse(validator.isValid(null));
+    }
+
+    @Test
+    public void testMatchesLegacyImplementation() {
+        InetAddressValidator validator = InetAddressValidator.getInstance();
+        Random random = new Random(42);
+
+        for (int idx = 0; idx < 300000; ++idx) {
+            StringBuilder builder = new StringBuilder();
+            for (int count = random.nextInt(12); count >= 0; --count) {
+                builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+
+            String value = builder.toString();
+            assertEquals(value, LegacyInetAddressValidator.isValidInet4Address(value), validator.isValidInet4Address(value));
+            assertEquals(value, LegacyInetAddressValidator.isValidInet6Address(value), validator.isValidInet6Address(value));
+        }
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * The regular expression based implementation the single-pass parsers replaced.
+     */
+    private static final class LegacyInetAddressValidator
+    {
+        static boolean isValidInet4Address(String inet4Address) {
+            Matcher matcher = IPV4_PATTERN.matcher(inet4Address);
+            if (!matcher.matches()) {
+                return false;
+            }
+
+            for (int idx = 1; idx <= matcher.groupCount(); ++idx) {
+                String segment = matcher.group(idx);
+                if (Integer.parseInt(segment) > 255 || (segment.length() > 1 && segment.startsWith("0"))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static boolean isValidInet6Address(String inet6Address) {
+            boolean containsCompressedZeroes = inet6Address.contains("::");
+            if (containsCompressedZeroes && (inet6Address.indexOf("::") != inet6Address.lastIndexOf("::"))) {
+                return false;
+            }
+            if ((inet6Address.startsWith(":") && !inet6Address.startsWith("::"))
+                    || (inet6Address.endsWith(":") && !inet6Address.endsWith("::"))) {
+                return false;
+            }
+
+            String[] octets = inet6Address.split(":");
+            if (containsCompressedZeroes) {
+                List<String> octetList = new ArrayList<>(Arrays.asList(octets));
+                if (inet6Address.endsWith("::")) {
+                    octetList.add("");
+                }
+                else if (inet6Address.startsWith("::") && !octetList.isEmpty()) {
+                    octetList.remove(0);
+                }
+                octets = octetList.toArray(new String[octetList.size()]);
+            }
+            if (octets.length > 8) {
+                return false;
+            }
+
+            int validOctets = 0;
+            int emptyOctets = 0;
+            for (int index = 0; index < octets.length; index++) {
+                String octet = octets[index];
+                if (octet.length() == 0) {
+                    if (++emptyOctets > 1) {
+                        return false;
+                    }
+                }
+                else {
+                    emptyOctets = 0;
+                    if (index == octets.length - 1 && octet.contains(".")) {
+                        if (!isValidInet4Address(octet)) {
+                            return false;
+                        }
+                        validOctets += 2;
+                        continue;
+                    }
+                    if (octet.length() > 4) {
+                        return false;
+                    }
+                    try {
+                        if (Integer.parseInt(octet, 16) < 0) {
+                            return false;
+                        }
+                    }
+                    catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+                validOctets++;
+            }
+            return validOctets <= 8 && (validOctets == 8 || containsCompressedZeroes);
+        }
+
+        private static final Pattern IPV4_PATTERN = Pattern.compile("^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})$");
+    }
+
+// MARK: - Constants
+
+    // A sign or non-ASCII digits are left out, the legacy implementation accepted them in the IPv6 groups
+    private static final String[] TOKENS = {
+            "0", "1", "9", "00", "01", "10", "255", "256", "999", "1000", "a", "F", "ff", "abcd", "FFFF", "12345", "g", " ",
+            ":", ":", ":", "::", ":::", ".", ".", "1.2.3.4", "255.255.255.255", "0.0.0.0", "1.2.3", "1:2:3:4:5:6", "\n"
+    };
+}
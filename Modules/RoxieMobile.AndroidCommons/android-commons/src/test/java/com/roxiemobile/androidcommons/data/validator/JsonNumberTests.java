@@ -0,0 +1,95 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.roxiemobile.androidcommons.data.validator.JsonValidator.Type;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public final class JsonNumberTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testMatchesBigDecimal() {
+        for (String number : NUMBERS) {
+            assertType(number);
+
+            for (String bound : NUMBERS) {
+                assertCompare(number, bound);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesBigDecimalRandomly() {
+        Random random = new Random(42);
+
+        for (int idx = 0; idx < 100000; ++idx) {
+            String number = randomNumber(random);
+            String bound = randomNumber(random);
+
+            assertType(number);
+            assertCompare(number, bound);
+
+            // Neighbours are the hardest to tell apart
+            assertCompare(number, new BigDecimal(number).add(BigDecimal.ONE.movePointLeft(random.nextInt(20))).toString());
+        }
+    }
+
+// MARK: - Private Methods
+
+    private static void assertType(String number) {
+        Type expected = (new BigDecimal(number).scale() > 0) ? Type.NUMBER : Type.INTEGER;
+        assertEquals(number, expected, JsonNumber.getType(number));
+    }
+
+    private static void assertCompare(String number, String bound) {
+        BigDecimal value = new BigDecimal(bound);
+        int expected = new BigDecimal(number).compareTo(value);
+        String message = number + " vs " + bound;
+
+        assertEquals(message, expected, JsonNumber.compare(number, bound));
+        assertEquals(message, expected < 0, new JsonNumber.Bound(value).isGreaterThan(number));
+        assertEquals(message, expected > 0, new JsonNumber.Bound(value).isLessThan(number));
+    }
+
+    private static String randomNumber(Random random) {
+        StringBuilder builder = new StringBuilder();
+        if (random.nextBoolean()) {
+            builder.append('-');
+        }
+
+        builder.append(random.nextInt(10));
+        for (int idx = random.nextInt(20); idx > 0; --idx) {
+            builder.append(random.nextInt(10));
+        }
+
+        if (random.nextBoolean()) {
+            builder.append('.');
+            for (int idx = random.nextInt(20) + 1; idx > 0; --idx) {
+                builder.append(random.nextInt(10));
+            }
+        }
+
+        if (random.nextInt(4) == 0) {
+            builder.append(random.nextBoolean() ? 'e' : 'E').append(random.nextBoolean() ? "-" : "");
+            builder.append(random.nextInt(40));
+        }
+
+        return builder.toString();
+    }
+
+// MARK: - Constants
+
+    private static final String[] NUMBERS = {
+            "0", "-0", "0.0", "-0.0", "1", "-1", "1.0", "1.00", "1e2", "1E2", "1e+2", "1.5e1", "1.50e1", "15e-1",
+            "0.1", "0.10000000000000001", "0.30000000000000004", "0.3", "100", "99.999999999999999",
+            "123456789012345678", "-123456789012345678", "1234567890123456789", "9223372036854775807",
+            "9223372036854775808", "-9223372036854775808", "1e22", "1e23", "1e-22", "1e-23", "1e400", "1e-400",
+            "123456789012345", "123456789012345.1", "0.000000000000000000000000001", "2.5", "2.4999999999999999"
+    };
+}
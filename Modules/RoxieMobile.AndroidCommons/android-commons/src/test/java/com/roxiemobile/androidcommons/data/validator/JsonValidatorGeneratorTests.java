@@ -0,0 +1,139 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.androidcommons.logging.Logger.LogLevel;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNotNull;
+
+public final class JsonValidatorGeneratorTests
+{
+// MARK: - Methods
+
+    @Before
+    public void setUp() {
+        Logger.shared().logLevel(LogLevel.Suppress);
+    }
+
+// MARK: - Tests
+
+    @Test
+    public void testGeneratedMatchesCompiled() throws Exception {
+        assertMatchesCompiled(JsonValidatorTests.SCHEMA, JsonValidatorTests.DOCUMENTS);
+    }
+
+    @Test
+    public void testGeneratedTupleMatchesCompiled() throws Exception {
+        String[] documents = {"[]", "['a']", "['a', 1]", "[1]", "['a', -1]", "['a', 1, true]", "['a', 1, 'b']"};
+
+        assertMatchesCompiled("{'type': 'array', 'items': [{'type': 'string'}, {'type': 'integer', 'minimum': 0}]," +
+                " 'additionalProperties': {'type': 'boolean'}}", documents);
+        assertMatchesCompiled("{'type': 'array', 'items': [{'type': 'string', 'pattern': '\"\\\\\\\\w+'}, {}]," +
+                " 'additionalProperties': false}", documents);
+    }
+
+    @Test
+    public void testGeneratedEmptyPropertiesMatchesCompiled() throws Exception {
+        String[] documents = {"{}", "{'a': 1}", "{'a': 'x', 'b': 2}", "[]", "1"};
+
+        assertMatchesCompiled("{'type': 'object', 'properties': {}, 'additionalProperties': false}", documents);
+        assertMatchesCompiled("{'type': 'object', 'properties': {}, 'additionalProperties': {'type': 'integer'}}", documents);
+    }
+
+    @Test
+    public void testGenerateRejectsBadSchema() {
+        try {
+            JsonValidatorGenerator.generate(parse("{'pattern': '('}").getAsJsonObject(), "", "Bad");
+            fail("JsonValidationException is not thrown");
+        }
+        catch (JsonValidationException e) {
+            // Expected exception
+        }
+    }
+
+// MARK: - Private Methods
+
+    private void assertMatchesCompiled(String json, String[] documents) throws Exception {
+        JsonObject schema = parse(json).getAsJsonObject();
+        CompiledJsonSchema compiled = JsonValidator.compile(schema);
+        GeneratedJsonValidator generated = compile(JsonValidatorGenerator.generate(schema, PACKAGE_NAME, CLASS_NAME));
+
+        for (String document : documents) {
+            JsonElement element = parse(document);
+            assertEquals(document, validate(compiled, element), validate(generated, element));
+        }
+    }
+
+    private GeneratedJsonValidator compile(String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+
+        File root = mFolder.newFolder();
+        File file = new File(root, PACKAGE_NAME.replace('.', File.separatorChar) + File.separator + CLASS_NAME + ".java");
+        file.getParentFile().mkdirs();
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            writer.write(source);
+        }
+
+        int result = compiler.run(null, null, null, "-nowarn", "-encoding", "UTF-8",
+                "-classpath", System.getProperty("java.class.path"), "-d", root.getPath(), file.getPath());
+        assertEquals(source, 0, result);
+
+        ClassLoader loader = new URLClassLoader(new URL[]{root.toURI().toURL()}, getClass().getClassLoader());
+        return (GeneratedJsonValidator) loader.loadClass(PACKAGE_NAME + "." + CLASS_NAME).newInstance();
+    }
+
+    private static String validate(CompiledJsonSchema schema, JsonElement element) {
+        try {
+            schema.validate(element);
+            return null;
+        }
+        catch (JsonValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String validate(GeneratedJsonValidator validator, JsonElement element) {
+        try {
+            validator.validate(element);
+            return null;
+        }
+        catch (JsonValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static JsonElement parse(String json) {
+        return new JsonParser().parse(json);
+    }
+
+// MARK: - Constants
+
+    private static final String PACKAGE_NAME = "com.example.generated";
+    private static final String CLASS_NAME = "SampleValidator";
+
+// MARK: - Variables
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+}
@@ -0,0 +1,301 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.roxiemobile.androidcommons.concurrent.ParallelWorkerThreadExecutor;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.androidcommons.logging.Logger.LogLevel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class JsonValidatorTests
+{
+// MARK: - Methods
+
+    @Before
+    public void setUp() {
+        Logger.shared().logLevel(LogLevel.Suppress);
+    }
+
+// MARK: - Tests
+
+    @Test
+    public void testCompiledMatchesInterpreted() throws Exception {
+        JsonObject schema = parse(SCHEMA).getAsJsonObject();
+        CompiledJsonSchema compiled = JsonValidator.compile(schema);
+
+        for (String document : DOCUMENTS) {
+            JsonElement element = parse(document);
+            assertEquals(document, validate(schema, element), validate(compiled, element));
+        }
+    }
+
+    @Test
+    public void testStreamingMatchesTree() throws Exception {
+        CompiledJsonSchema compiled = JsonValidator.compile(parse(SCHEMA).getAsJsonObject());
+
+        for (String document : DOCUMENTS) {
+            assertEquals(document, validate(compiled, parse(document)), validate(compiled, document));
+        }
+    }
+
+    @Test
+    public void testStreamingFailsFast() throws Exception {
+        CompiledJsonSchema compiled = JsonValidator.compile(parse(SCHEMA).getAsJsonObject());
+
+        // The violation is reported before the malformed tail is read
+        assertEquals("Invalid: Found additional property '$['unknown']'",
+                validate(compiled, "{'name': 'john', 'unknown': 1, 'age': [[[ "));
+
+        try {
+            compiled.validate(new StringReader("{'name': 'john'} {}"));
+            fail("IOException is not thrown");
+        }
+        catch (IOException e) {
+            // Expected exception
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        CompiledJsonSchema compiled = JsonValidator.compile(parse(
+                "{'type': 'array', 'items': {'type': 'object', 'properties': {" +
+                "  'id': {'type': 'integer', 'minimum': 0}," +
+                "  'tags': {'type': 'array', 'items': {'type': 'string', 'minLength': 1}}" +
+                "}}}").getAsJsonObject());
+
+        JsonArray array = new JsonArray();
+        for (int idx = 0; idx < 20000; ++idx) {
+            array.add(parse("{'id': " + idx + ", 'tags': ['a', 'b']}"));
+        }
+        assertNull(validate(compiled, array, ParallelWorkerThreadExecutor.shared()));
+
+        // The lowest invalid index is reported whatever chunk finishes first
+        array.set(17000, parse("{'id': -1, 'tags': []}"));
+        array.set(15000, parse("{'id': 1, 'tags': ['']}"));
+        array.set(9000, parse("{'tags': []}"));
+
+        String expected = validate(compiled, array);
+        assertEquals("Invalid: Required property '$[9001]['id']' not found", expected);
+        for (int idx = 0; idx < 10; ++idx) {
+            assertEquals(expected, validate(compiled, array, ParallelWorkerThreadExecutor.shared()));
+        }
+    }
+
+    @Test
+    public void testReportsPaths() throws Exception {
+        JsonObject schema = parse(SCHEMA).getAsJsonObject();
+        CompiledJsonSchema compiled = JsonValidator.compile(schema);
+        JsonElement document = parse("{'name': 'a', 'vehicles': [{'model': 'x'}, {'model': ''}], 'tags': []}");
+        String expected = "Invalid: String '$['vehicles'][2]['model']' is too short.  The string needs to be more than 1 characters";
+
+        assertEquals(expected, validate(schema, document));
+        assertEquals(expected, validate(compiled, document));
+
+        // The path is reset after a failure
+        assertNull(validate(schema, parse(DOCUMENTS[0])));
+        assertEquals("Invalid: Found additional property '$['unknown']'", validate(schema, parse("{'name': 'a', 'unknown': 1}")));
+    }
+
+    @Test
+    public void testPatternCache() throws Exception {
+        JsonObject schema = parse("{'type': 'string', 'pattern': '[0-9]{3}-[0-9]{4}'}").getAsJsonObject();
+        long hitCount = JsonValidator.getPatternCache().hitCount();
+
+        JsonValidator.validate(schema, parse("'123-4567'"));
+        JsonValidator.validate(schema, parse("'765-4321'"));
+        assertEquals("Invalid: String '$' does not match pattern '[0-9]{3}-[0-9]{4}'", validate(schema, parse("'1234567'")));
+
+        assertTrue(JsonValidator.getPatternCache().hitCount() >= hitCount + 2);
+    }
+
+    @Test
+    public void testTuple() throws Exception {
+        String[] schemas = {
+                "{'type': 'array', 'items': [{'type': 'string'}, {'type': 'integer', 'minimum': 0}]}",
+                "{'type': 'array', 'items': [{'type': 'string'}], 'additionalProperties': {'type': 'boolean'}}",
+                "{'type': 'array', 'items': [{'type': 'string'}], 'additionalProperties': false}"
+        };
+        String[] documents = {"[]", "['a']", "['a', 1]", "[1]", "['a', -1]", "['a', 1, true]", "['a', true, false]"};
+
+        for (String json : schemas) {
+            JsonObject schema = parse(json).getAsJsonObject();
+            CompiledJsonSchema compiled = JsonValidator.compile(schema);
+
+            for (String document : documents) {
+                JsonElement element = parse(document);
+                String expected = validate(schema, element);
+
+                assertEquals(json + " " + document, expected, validate(compiled, element));
+                assertEquals(json + " " + document, expected, validate(compiled, document));
+            }
+        }
+
+        JsonObject schema = parse(schemas[2]).getAsJsonObject();
+        assertEquals("Invalid: Found additional item '$[2]'", validate(schema, parse("['a', 'b']")));
+    }
+
+    @Test
+    public void testReportCollectsViolations() throws Exception {
+        CompiledJsonSchema compiled = JsonValidator.compile(parse(SCHEMA).getAsJsonObject());
+        JsonElement document = parse("{'name': 'John', 'age': 151, 'tags': [1, 'a', 2], 'unknown': 1}");
+
+        ValidationReport report = new ValidationReport();
+        compiled.validate(document, report);
+
+        assertFalse(report.isValid());
+        assertFalse(report.isTruncated());
+        assertEquals(5, report.getViolations().size());
+        assertEquals("$['name']", report.getViolations().get(0).getPath());
+        assertEquals(validate(compiled, document), report.getViolations().get(0).getMessage());
+
+        report = new ValidationReport(2);
+        compiled.validate(document, report);
+        assertEquals(2, report.getViolations().size());
+        assertTrue(report.isTruncated());
+
+        report.clear();
+        compiled.validate(parse(DOCUMENTS[0]), report);
+        assertTrue(report.isValid());
+    }
+
+    @Test
+    public void testFailuresAreStackless() {
+        try {
+            JsonValidator.validate(parse(SCHEMA).getAsJsonObject(), parse("{'name': 5}"));
+            fail("JsonValidationException is not thrown");
+        }
+        catch (JsonValidationException e) {
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+
+    @Test
+    public void testCompileRejectsBadSchema() {
+        String[] schemas = {
+                "{'properties': {'a': 1}}",
+                "{'minLength': 'x'}",
+                "{'pattern': '('}",
+                "{'enum': 1}",
+                "{'items': {'maximum': 'x'}}"
+        };
+
+        for (String schema : schemas) {
+            try {
+                JsonValidator.compile(parse(schema).getAsJsonObject());
+                fail("JsonValidationException is not thrown for " + schema);
+            }
+            catch (JsonValidationException e) {
+                // Expected exception
+            }
+        }
+    }
+
+// MARK: - Private Methods
+
+    private static JsonElement parse(String json) {
+        return new JsonParser().parse(json);
+    }
+
+    private static String validate(JsonObject schema, JsonElement element) {
+        try {
+            JsonValidator.validate(schema, element);
+            return null;
+        }
+        catch (JsonValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String validate(CompiledJsonSchema schema, JsonElement element) {
+        try {
+            schema.validate(element);
+            return null;
+        }
+        catch (JsonValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String validate(CompiledJsonSchema schema, JsonElement element, ExecutorService executor) {
+        try {
+            schema.validate(element, executor);
+            return null;
+        }
+        catch (JsonValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String validate(CompiledJsonSchema schema, String document) throws IOException {
+        try {
+            schema.validate(new StringReader(document));
+            return null;
+        }
+        catch (JsonValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+// MARK: - Constants
+
+    static final String SCHEMA = "{" +
+            "  'type': 'object'," +
+            "  'properties': {" +
+            "    'name': {'type': 'string', 'minLength': 1, 'maxLength': 8, 'pattern': '[a-z]+'}," +
+            "    'age': {'type': 'integer', 'optional': true, 'minimum': 0, 'maximum': 150}," +
+            "    'rating': {'type': 'number', 'optional': true, 'minimum': 0.5}," +
+            "    'kind': {'type': 'string', 'optional': true, 'enum': ['car', 'bike']}," +
+            "    'tags': {'type': 'array', 'optional': true, 'items': {'type': 'string'}}," +
+            "    'vehicles': {'type': 'array', 'optional': true, 'items': {" +
+            "      'type': 'object'," +
+            "      'properties': {'model': {'type': 'string', 'minLength': 1}}," +
+            "      'additionalProperties': {'type': 'boolean'}" +
+            "    }}," +
+            "    'extra': {'optional': true}" +
+            "  }," +
+            "  'additionalProperties': false" +
+            "}";
+
+    static final String[] DOCUMENTS = {
+            "{'name': 'john', 'age': 30, 'rating': 4.5, 'kind': 'car', 'tags': ['a', 'b']," +
+                    " 'vehicles': [{'model': 'mini', 'new': true}], 'extra': [1, {}]}",
+            "{'name': 'john'}",
+            "{'name': ''}",
+            "{'name': 'johnjohnjohn'}",
+            "{'name': 'John'}",
+            "{'name': 5}",
+            "{'age': 30}",
+            "{'name': 'john', 'age': 30.5}",
+            "{'name': 'john', 'age': -1}",
+            "{'name': 'john', 'age': 151}",
+            "{'name': 'john', 'age': 1e2}",
+            "{'name': 'john', 'rating': 0.25}",
+            "{'name': 'john', 'rating': 3}",
+            "{'name': 'john', 'kind': 'plane'}",
+            "{'name': 'john', 'tags': ['a', 1]}",
+            "{'name': 'john', 'tags': {}}",
+            "{'name': 'john', 'vehicles': [{'model': 'mini'}, {'model': ''}]}",
+            "{'name': 'john', 'vehicles': [{'model': 'mini', 'new': 'yes'}]}",
+            "{'name': 'john', 'vehicles': [{}]}",
+            "{'name': 'john', 'unknown': 1}",
+            "{'name': 'john', 'extra': null}",
+            "{'name': null}",
+            "[]",
+            "'john'",
+            "null"
+    };
+}
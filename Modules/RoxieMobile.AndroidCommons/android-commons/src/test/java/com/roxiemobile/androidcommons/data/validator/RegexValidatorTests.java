@@ -0,0 +1,145 @@
+package com.roxiemobile.androidcommons.data.validator;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public final class RegexValidatorTests
+{
+// MARK: - Tests
+
+    @Test
+    public void testMatchesPatternsOneByOne() {
+        String[][] regexSets = {
+                {"^([a-z]+)$"},
+                {"^([a-z]+)\\.([a-z]+)$", "^([a-z]+)$", "^(a)(b)?(c)$"},
+                {"^(\\d+)-(\\d+)$", "^(\\d+)$", "^(?:x|y)(\\d)?$", "^(?<word>[a-z]{2,})$"},
+                {"^(a+)+b$", "^a*$", "^((a)|(b))*c$"},
+                {"^([a-z]+)(\\1)$", "^([0-9]+)$"},
+                {"^(?i)abc$", "^ABD$"},
+                {"^\\Q(\\E(x)$", "^(y)$"},
+                // The expressions that cannot be combined follow the ones that can
+                {"^(a)(b)$", "^(c)\\1$"},
+                {"^(a)(b)(x)?$", "^(?i)c$"},
+                {"^(?<word>[a-z])(b)$", "^(?<word>[0-9]+)$"}
+        };
+        String[] values = {"", "a", "abc", "ABC", "abd", "ABD", "ab", "ac", "abac", "a.b", "abc.def", "12", "12-34", "x", "y7",
+                "aaab", "aaaa", "ababc", "cc", "abab", "(x", "y", "xyz"};
+
+        for (String[] regexs : regexSets) {
+            for (boolean caseSensitive : new boolean[]{true, false}) {
+                RegexValidator validator = new RegexValidator(regexs, caseSensitive);
+
+                for (String value : values) {
+                    assertOneByOne(regexs, caseSensitive, validator, value);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchIndex() {
+        RegexValidator validator = new RegexValidator(new String[]{"^(a)(b)$", "^(\\w)(\\w)$", "^(c)$"});
+
+        assertEquals(0, validator.matchIndex("ab"));
+        assertEquals(1, validator.matchIndex("cd"));
+        assertEquals(1, validator.matchIndex("cc"));
+        assertEquals(2, validator.matchIndex("c"));
+        assertEquals(-1, validator.matchIndex("abc"));
+        assertEquals(-1, validator.matchIndex(null));
+
+        assertArrayEquals(new String[]{"c"}, validator.match("c"));
+        assertEquals("cd", validator.validate("cd"));
+        assertTrue(validator.isValid("ab"));
+        assertFalse(validator.isValid("abc"));
+        assertNull(validator.match("abc"));
+    }
+
+    @Test
+    public void testRange() {
+        RegexValidator validator = new RegexValidator(new String[]{"^(\\d+)$", "^\\b[a-z]+$"});
+        String buffer = "id=42;name=john";
+
+        assertTrue(validator.isValid(buffer, 3, 5));
+        assertEquals(1, validator.matchIndex(buffer, 11, 15));
+        assertEquals(-1, validator.matchIndex(buffer, 2, 5));
+        assertEquals(1, validator.matchIndex(buffer, 12, 15)); // The word boundary is at the start of the range
+        assertFalse(validator.isValid(null, 0, 0));
+
+        // The matchers are reused, but do not affect the next call
+        assertEquals("42", validator.validate("42"));
+        assertArrayEquals(new String[]{"7"}, validator.match("7"));
+        assertNull(validator.match("x7"));
+        assertTrue(validator.isValid(buffer, 3, 5));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        RegexValidator validator = deserialize(serialize(new RegexValidator(new String[]{"^(a)(b)$", "^(\\w)(\\w)$"}, false)));
+
+        assertEquals(0, validator.matchIndex("AB"));
+        assertEquals(1, validator.matchIndex("cd"));
+        assertArrayEquals(new String[]{"c", "d"}, validator.match("cd"));
+        assertNull(validator.match("abc"));
+
+        // The expressions that cannot be combined are tried one by one after deserialization as well
+        validator = deserialize(serialize(new RegexValidator(new String[]{"^(a)$", "^(\\w)\\1$"})));
+        assertArrayEquals(new String[]{"a"}, validator.match("a"));
+        assertArrayEquals(new String[]{"b"}, validator.match("bb"));
+        assertEquals(-1, validator.matchIndex("bc"));
+    }
+
+// MARK: - Private Methods
+
+    private static byte[] serialize(RegexValidator validator) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(validator);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static RegexValidator deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (RegexValidator) in.readObject();
+        }
+    }
+
+    private static void assertOneByOne(String[] regexs, boolean caseSensitive, RegexValidator validator, String value) {
+        String message = validator + " " + value;
+
+        for (int i = 0; i < regexs.length; i++) {
+            Matcher matcher = Pattern.compile(regexs[i], caseSensitive ? 0 : Pattern.CASE_INSENSITIVE).matcher(value);
+            if (matcher.matches()) {
+                String[] groups = new String[matcher.groupCount()];
+                StringBuilder aggregated = new StringBuilder();
+                for (int j = 0; j < groups.length; j++) {
+                    groups[j] = matcher.group(j + 1);
+                    if (groups[j] != null) {
+                        aggregated.append(groups[j]);
+                    }
+                }
+
+                assertEquals(message, i, validator.matchIndex(value));
+                assertArrayEquals(message, groups, validator.match(value));
+                assertEquals(message, (groups.length == 1) ? groups[0] : aggregated.toString(), validator.validate(value));
+                return;
+            }
+        }
+
+        assertEquals(message, -1, validator.matchIndex(value));
+        assertNull(message, validator.match(value));
+        assertNull(message, validator.validate(value));
+    }
+}